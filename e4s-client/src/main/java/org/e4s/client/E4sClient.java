@@ -91,7 +91,7 @@ public interface E4sClient extends AutoCloseable {
      * @param end end of the time range (inclusive)
      * @param type aggregation type (SUM, AVG, MIN, MAX, COUNT)
      * @param interval aggregation interval (HOURLY, DAILY, WEEKLY)
-     * @return aggregation result with value and count
+     * @return aggregation result with the overall value and count, and one value per interval
      */
     AggregationResult queryAggregation(String meterId, Instant start, Instant end,
                                         AggregationType type, Interval interval);
@@ -157,12 +157,45 @@ public interface E4sClient extends AutoCloseable {
     }
 
     /**
-     * Interval for aggregation grouping.
+     * Interval for aggregation grouping. Intervals are aligned in UTC; weeks start on Monday.
      */
     enum Interval {
         HOURLY, DAILY, WEEKLY
     }
 
+    /**
+     * Aggregated value of one interval.
+     */
+    class IntervalValue {
+        private Instant intervalStart;
+        private Double value;
+        private int count;
+
+        public Instant getIntervalStart() {
+            return intervalStart;
+        }
+
+        public void setIntervalStart(Instant intervalStart) {
+            this.intervalStart = intervalStart;
+        }
+
+        public Double getValue() {
+            return value;
+        }
+
+        public void setValue(Double value) {
+            this.value = value;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+    }
+
     /**
      * Result of an aggregation query.
      */
@@ -172,6 +205,7 @@ public interface E4sClient extends AutoCloseable {
         private Interval interval;
         private Double value;
         private int count;
+        private List<IntervalValue> series;
 
         public String getMeterId() {
             return meterId;
@@ -212,6 +246,17 @@ public interface E4sClient extends AutoCloseable {
         public void setCount(int count) {
             this.count = count;
         }
+
+        /**
+         * Per-interval values in time order; {@link #getValue()} covers the whole range.
+         */
+        public List<IntervalValue> getSeries() {
+            return series;
+        }
+
+        public void setSeries(List<IntervalValue> series) {
+            this.series = series;
+        }
     }
 
     /**
@@ -0,0 +1,35 @@
+package org.e4s.client.http;
+
+import org.e4s.model.serialization.CompressionCodec;
+import org.e4s.model.serialization.CompressionCodecs;
+
+/**
+ * Body encoding used by {@link E4sHttpClient} for ingest calls.
+ */
+public enum IngestEncoding {
+
+    /**
+     * JSON bodies, readable by any HTTP client.
+     */
+    JSON(null),
+
+    /**
+     * {@code application/x-e4s-kryo}, uncompressed. Lowest CPU on both sides.
+     */
+    KRYO(CompressionCodecs.NONE),
+
+    /**
+     * {@code application/x-e4s-kryo} with fast deflate, for bandwidth-bound links.
+     */
+    KRYO_DEFLATE(CompressionCodecs.DEFLATE_FAST);
+
+    private final CompressionCodec codec;
+
+    IngestEncoding(CompressionCodec codec) {
+        this.codec = codec;
+    }
+
+    CompressionCodec getCodec() {
+        return codec;
+    }
+}
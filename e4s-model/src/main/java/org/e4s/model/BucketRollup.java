@@ -0,0 +1,182 @@
+package org.e4s.model;
+
+import java.util.Arrays;
+
+/**
+ * Summary statistics of a {@link MeterBucket}, maintained as readings are appended so that
+ * aggregations can skip the reading columns.
+ *
+ * <p>Holds:
+ * <ul>
+ *   <li>Day totals: reading count, min/max timestamp, and sum/min/max of voltage, current
+ *       and power</li>
+ *   <li>Hourly power sub-rollups: count/sum/min/max for each of the 24 UTC hours of the day</li>
+ * </ul>
+ *
+ * <p>Hourly rollups only cover power, the field served by the aggregation API. Hours are taken
+ * from the reading timestamp modulo one day, so readings must belong to the bucket's UTC day;
+ * {@link MeterBucket} passes readings of other days to {@link #extendTimeSpan} only.
+ *
+ * <p>An empty rollup has count 0, sums 0, min +∞ and max -∞, and an empty time span
+ * ({@link Long#MAX_VALUE}, {@link Long#MIN_VALUE}). Not thread-safe.
+ */
+public class BucketRollup {
+
+    public static final int HOURS = 24;
+
+    public static final int VOLTAGE = 0;
+    public static final int CURRENT = 1;
+    public static final int POWER = 2;
+
+    private static final int FIELDS = 3;
+
+    private static final long MILLIS_PER_HOUR = 60L * 60 * 1000;
+
+    private static final long MILLIS_PER_DAY = HOURS * MILLIS_PER_HOUR;
+
+    private int count;
+    private long minTimestamp = Long.MAX_VALUE;
+    private long maxTimestamp = Long.MIN_VALUE;
+    private final double[] sums = new double[FIELDS];
+    private final double[] mins = new double[FIELDS];
+    private final double[] maxs = new double[FIELDS];
+
+    private final int[] hourCounts = new int[HOURS];
+    private final double[] hourSums = new double[HOURS];
+    private final double[] hourMins = new double[HOURS];
+    private final double[] hourMaxs = new double[HOURS];
+
+    public BucketRollup() {
+        Arrays.fill(mins, Double.POSITIVE_INFINITY);
+        Arrays.fill(maxs, Double.NEGATIVE_INFINITY);
+        Arrays.fill(hourMins, Double.POSITIVE_INFINITY);
+        Arrays.fill(hourMaxs, Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * Builds the rollup of the first {@code count} rows of the given columns.
+     */
+    public static BucketRollup of(long[] timestamps, double[] voltages, double[] currents, double[] powers,
+                                  int count) {
+        BucketRollup rollup = new BucketRollup();
+        rollup.addAll(timestamps, voltages, currents, powers, 0, count);
+        return rollup;
+    }
+
+    public void add(long reportedTs, double voltage, double current, double power) {
+        count++;
+        minTimestamp = Math.min(minTimestamp, reportedTs);
+        maxTimestamp = Math.max(maxTimestamp, reportedTs);
+        accumulate(VOLTAGE, voltage);
+        accumulate(CURRENT, current);
+        accumulate(POWER, power);
+
+        int hour = hourOf(reportedTs);
+        hourCounts[hour]++;
+        hourSums[hour] += power;
+        hourMins[hour] = Math.min(hourMins[hour], power);
+        hourMaxs[hour] = Math.max(hourMaxs[hour], power);
+    }
+
+    /**
+     * Adds rows {@code [from, to)} of the given columns.
+     */
+    public void addAll(long[] timestamps, double[] voltages, double[] currents, double[] powers, int from, int to) {
+        for (int i = from; i < to; i++) {
+            add(timestamps[i], voltages[i], currents[i], powers[i]);
+        }
+    }
+
+    /**
+     * Restores one hourly power rollup, e.g. when deserializing. Day totals for power are
+     * updated from it; voltage and current totals must be restored with {@link #setDayStats}.
+     */
+    public void setHour(int hour, int hourCount, double sum, double min, double max) {
+        count += hourCount;
+        hourCounts[hour] = hourCount;
+        hourSums[hour] = sum;
+        hourMins[hour] = min;
+        hourMaxs[hour] = max;
+        sums[POWER] += sum;
+        mins[POWER] = Math.min(mins[POWER], min);
+        maxs[POWER] = Math.max(maxs[POWER], max);
+    }
+
+    /**
+     * Widens the time span to {@code reportedTs} without counting a reading.
+     */
+    public void extendTimeSpan(long reportedTs) {
+        minTimestamp = Math.min(minTimestamp, reportedTs);
+        maxTimestamp = Math.max(maxTimestamp, reportedTs);
+    }
+
+    /**
+     * Restores the time span, e.g. when deserializing.
+     */
+    public void setTimeSpan(long minTimestamp, long maxTimestamp) {
+        this.minTimestamp = minTimestamp;
+        this.maxTimestamp = maxTimestamp;
+    }
+
+    /**
+     * Restores the day totals of {@link #VOLTAGE} or {@link #CURRENT}, e.g. when deserializing.
+     */
+    public void setDayStats(int field, double sum, double min, double max) {
+        sums[field] = sum;
+        mins[field] = min;
+        maxs[field] = max;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getMinTimestamp() {
+        return minTimestamp;
+    }
+
+    public long getMaxTimestamp() {
+        return maxTimestamp;
+    }
+
+    public double getSum(int field) {
+        return sums[field];
+    }
+
+    public double getMin(int field) {
+        return mins[field];
+    }
+
+    public double getMax(int field) {
+        return maxs[field];
+    }
+
+    public int getHourCount(int hour) {
+        return hourCounts[hour];
+    }
+
+    public double getHourSum(int hour) {
+        return hourSums[hour];
+    }
+
+    public double getHourMin(int hour) {
+        return hourMins[hour];
+    }
+
+    public double getHourMax(int hour) {
+        return hourMaxs[hour];
+    }
+
+    /**
+     * @return hour of the UTC day (0-23) of an epoch-millis timestamp
+     */
+    public static int hourOf(long reportedTs) {
+        return (int) (Math.floorMod(reportedTs, MILLIS_PER_DAY) / MILLIS_PER_HOUR);
+    }
+
+    private void accumulate(int field, double value) {
+        sums[field] += value;
+        mins[field] = Math.min(mins[field], value);
+        maxs[field] = Math.max(maxs[field], value);
+    }
+}
@@ -1,69 +1,112 @@
 package org.e4s.model;
 
+import java.util.Arrays;
+
 /**
  * A daily bucket that stores all meter readings for a single meter on a single day.
- * 
+ *
  * <p>This is the primary storage unit in the cache system. Each bucket contains:
  * <ul>
- *   <li>meterId - The unique identifier for the meter</li>
+ *   <li>meterOrdinal - The meter's int ordinal, assigned once per meter id by the server's
+ *       meter registry; the id string itself is not stored</li>
  *   <li>bucketDateEpochDay - The date of this bucket (stored as epoch day for efficiency)</li>
- *   <li>readings - Array of readings for this day (typically 96 for 15-minute intervals)</li>
- *   <li>readingCount - Number of readings in the array</li>
- *   <li>lastAccessTime - Timestamp of last read/write (for eviction decisions)</li>
- *   <li>createdTime - Timestamp when bucket was created (for age-based eviction)</li>
+ *   <li>timestamps/voltages/currents/powers - Parallel primitive columns, one slot per reading
+ *       (typically 96 for 15-minute intervals)</li>
+ *   <li>readingCount - Number of readings held in the columns</li>
+ *   <li>rollup - {@link BucketRollup} day and hourly statistics, kept up to date by the
+ *       {@code addReading}/{@code addReadings} methods</li>
+ * </ul>
+ *
+ * <p>Readings are written in one of two modes, chosen by the writer:
+ * <ul>
+ *   <li>Append ({@code addReading}/{@code addReadings}): every reading becomes a row in arrival
+ *       order; duplicates are kept and late readings leave the columns out of order</li>
+ *   <li>Fixed slots ({@link #upsertReadings}): the day is divided into slots of a fixed length
+ *       (96 for 15-minute data) and each slot holds at most one reading. Rows stay sorted by
+ *       slot, a replayed reading is a no-op and a different reading for an occupied slot
+ *       replaces it. Occupied slots are tracked in a transient presence bitmap, rebuilt from
+ *       the timestamps after deserialization, so the stored format is the same in both
+ *       modes</li>
  * </ul>
- * 
+ *
+ * <p>{@code createdTime} and {@code lastWriteTime} are wall-clock times set by the writer through
+ * {@link #markWritten(long)}, which happens only when the bucket is rewritten anyway. Reads never
+ * touch them, so a read does not cost a write; the server records reads in a side structure
+ * instead and retention decides on day age, last write and last read.
+ *
  * <p>Memory optimization strategies:
  * <ul>
- *   <li>Uses primitive array instead of ArrayList to avoid capacity overhead</li>
+ *   <li>Columnar layout: four primitive arrays instead of one {@link MeterReading} object per row,
+ *       so a 96-reading day costs 4 array headers instead of 96 object headers plus pointers</li>
+ *   <li>{@link MeterReading} instances are only materialized on demand via {@link #getReading(int)}
+ *       or {@link #getReadings()}; scans and aggregations read the columns directly</li>
  *   <li>Stores date as epoch day (long) instead of LocalDate object</li>
  *   <li>Provides {@link #trimToSize()} to release unused array capacity before serialization</li>
- *   <li>Typical compressed size: ~1.5-2 KB for 96 readings</li>
+ *   <li>A deserialized bucket may hold its columns still encoded behind a {@link ColumnLoader};
+ *       each column is decoded on first access, so a query that only needs the rollup or the
+ *       power column never decodes the others</li>
+ *   <li>Serialized size: about 1 KB for a full day of 96 readings with the Gorilla columns and
+ *       the hourly rollup, see {@code MeterBucketHazelcastSerializer}</li>
  * </ul>
- * 
- * <p>Key design: The composite key format is "meterId:YYYY-MM-DD" (e.g., "MTR-001:2026-02-18").
- * This enables efficient prefix scanning for time-range queries on a single meter.
- * 
+ *
+ * <p>Key design: buckets are keyed by {@link MeterDayKey}, the meter ordinal and the epoch day.
+ *
  * @see MeterReading
  * @see MeterDayKey
  */
 public class MeterBucket {
 
-    private String meterId;
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    private static final long[] EMPTY_LONGS = new long[0];
+    private static final double[] EMPTY_DOUBLES = new double[0];
+
+    private int meterOrdinal;
     private long bucketDateEpochDay;
-    private MeterReading[] readings;
+    private long[] timestamps;
+    private double[] voltages;
+    private double[] currents;
+    private double[] powers;
     private int readingCount;
-    private long lastAccessTime;
+    private BucketRollup rollup;
+    private ColumnLoader columnLoader;
+    private long slotMillis;
+    private long[] slotPresence;
     private long createdTime;
+    private long lastWriteTime;
 
     public MeterBucket() {
-        this.readings = new MeterReading[0];
+        this.timestamps = EMPTY_LONGS;
+        this.voltages = EMPTY_DOUBLES;
+        this.currents = EMPTY_DOUBLES;
+        this.powers = EMPTY_DOUBLES;
         this.readingCount = 0;
-        this.createdTime = System.currentTimeMillis();
-        this.lastAccessTime = this.createdTime;
+        this.rollup = new BucketRollup();
     }
 
-    public MeterBucket(String meterId, long bucketDateEpochDay) {
+    public MeterBucket(int meterOrdinal, long bucketDateEpochDay) {
         this();
-        this.meterId = meterId;
+        this.meterOrdinal = meterOrdinal;
         this.bucketDateEpochDay = bucketDateEpochDay;
     }
 
-    public MeterBucket(String meterId, long bucketDateEpochDay, int initialCapacity) {
-        this.meterId = meterId;
+    public MeterBucket(int meterOrdinal, long bucketDateEpochDay, int initialCapacity) {
+        this.meterOrdinal = meterOrdinal;
         this.bucketDateEpochDay = bucketDateEpochDay;
-        this.readings = new MeterReading[initialCapacity];
+        this.timestamps = new long[initialCapacity];
+        this.voltages = new double[initialCapacity];
+        this.currents = new double[initialCapacity];
+        this.powers = new double[initialCapacity];
         this.readingCount = 0;
-        this.createdTime = System.currentTimeMillis();
-        this.lastAccessTime = this.createdTime;
+        this.rollup = new BucketRollup();
     }
 
-    public String getMeterId() {
-        return meterId;
+    public int getMeterOrdinal() {
+        return meterOrdinal;
     }
 
-    public void setMeterId(String meterId) {
-        this.meterId = meterId;
+    public void setMeterOrdinal(int meterOrdinal) {
+        this.meterOrdinal = meterOrdinal;
     }
 
     public long getBucketDateEpochDay() {
@@ -74,31 +117,168 @@ public class MeterBucket {
         this.bucketDateEpochDay = bucketDateEpochDay;
     }
 
+    /**
+     * Materializes the readings of this bucket as objects.
+     *
+     * <p>Allocates one {@link MeterReading} per row; hot paths should prefer the
+     * column accessors ({@link #getTimestamp(int)}, {@link #getPower(int)}, ...).
+     *
+     * @return a new array of exactly {@link #getReadingCount()} readings
+     */
     public MeterReading[] getReadings() {
+        MeterReading[] readings = new MeterReading[readingCount];
+        for (int i = 0; i < readingCount; i++) {
+            readings[i] = getReading(i);
+        }
         return readings;
     }
 
     public void setReadings(MeterReading[] readings) {
-        this.readings = readings;
-        this.readingCount = readings != null ? readings.length : 0;
+        int count = readings != null ? readings.length : 0;
+        this.timestamps = new long[count];
+        this.voltages = new double[count];
+        this.currents = new double[count];
+        this.powers = new double[count];
+        for (int i = 0; i < count; i++) {
+            MeterReading reading = readings[i];
+            timestamps[i] = reading.getReportedTs();
+            voltages[i] = reading.getVoltage();
+            currents[i] = reading.getCurrent();
+            powers[i] = reading.getPower();
+        }
+        this.readingCount = count;
+        this.rollup = null;
+        this.columnLoader = null;
+        this.slotPresence = null;
     }
 
-    public int getReadingCount() {
-        return readingCount;
+    /**
+     * Replaces all columns at once without copying. Used by deserializers that decode
+     * each column straight into a primitive array.
+     */
+    public void setColumns(long[] timestamps, double[] voltages, double[] currents, double[] powers,
+                           int readingCount) {
+        this.timestamps = timestamps;
+        this.voltages = voltages;
+        this.currents = currents;
+        this.powers = powers;
+        this.readingCount = readingCount;
+        this.rollup = null;
+        this.columnLoader = null;
+        this.slotPresence = null;
     }
 
-    public void setReadingCount(int readingCount) {
+    /**
+     * Replaces all columns with encoded ones that {@code loader} decodes on first access.
+     * Mutating the bucket decodes every column first.
+     */
+    public void setColumnLoader(ColumnLoader loader, int readingCount) {
+        this.timestamps = null;
+        this.voltages = null;
+        this.currents = null;
+        this.powers = null;
         this.readingCount = readingCount;
+        this.rollup = null;
+        this.columnLoader = loader;
+        this.slotPresence = null;
+    }
+
+    public MeterReading getReading(int index) {
+        return new MeterReading(getTimestamps()[index], getVoltages()[index], getCurrents()[index],
+                getPowers()[index]);
+    }
+
+    public long getTimestamp(int index) {
+        return getTimestamps()[index];
+    }
+
+    public double getVoltage(int index) {
+        return getVoltages()[index];
+    }
+
+    public double getCurrent(int index) {
+        return getCurrents()[index];
+    }
+
+    public double getPower(int index) {
+        return getPowers()[index];
     }
 
-    public long getLastAccessTime() {
-        return lastAccessTime;
+    /**
+     * Raw timestamp column. Only the first {@link #getReadingCount()} slots are valid.
+     */
+    public long[] getTimestamps() {
+        if (timestamps == null) {
+            timestamps = columnLoader.loadTimestamps();
+        }
+        return timestamps;
     }
 
-    public void setLastAccessTime(long lastAccessTime) {
-        this.lastAccessTime = lastAccessTime;
+    /**
+     * Raw voltage column. Only the first {@link #getReadingCount()} slots are valid.
+     */
+    public double[] getVoltages() {
+        if (voltages == null) {
+            voltages = columnLoader.loadVoltages();
+        }
+        return voltages;
     }
 
+    /**
+     * Raw current column. Only the first {@link #getReadingCount()} slots are valid.
+     */
+    public double[] getCurrents() {
+        if (currents == null) {
+            currents = columnLoader.loadCurrents();
+        }
+        return currents;
+    }
+
+    /**
+     * Raw power column. Only the first {@link #getReadingCount()} slots are valid.
+     */
+    public double[] getPowers() {
+        if (powers == null) {
+            powers = columnLoader.loadPowers();
+        }
+        return powers;
+    }
+
+    /**
+     * Earliest reading timestamp, or {@link Long#MAX_VALUE} when empty. Read from the rollup,
+     * without decoding the timestamp column.
+     */
+    public long getMinTimestamp() {
+        return getRollup().getMinTimestamp();
+    }
+
+    /**
+     * Latest reading timestamp, or {@link Long#MIN_VALUE} when empty.
+     */
+    public long getMaxTimestamp() {
+        return getRollup().getMaxTimestamp();
+    }
+
+    /**
+     * @return {@code true} if some reading may lie in {@code [startTs, endTs]}
+     */
+    public boolean overlaps(long startTs, long endTs) {
+        return readingCount > 0 && getMinTimestamp() <= endTs && getMaxTimestamp() >= startTs;
+    }
+
+    public int getReadingCount() {
+        return readingCount;
+    }
+
+    public void setReadingCount(int readingCount) {
+        this.readingCount = readingCount;
+        this.rollup = null;
+        this.slotPresence = null;
+    }
+
+    /**
+     * @return epoch millis of the first write, 0 if never marked
+     */
     public long getCreatedTime() {
         return createdTime;
     }
@@ -107,14 +287,73 @@ public class MeterBucket {
         this.createdTime = createdTime;
     }
 
-    public void touch() {
-        this.lastAccessTime = System.currentTimeMillis();
+    /**
+     * @return epoch millis of the latest write, 0 if never marked
+     */
+    public long getLastWriteTime() {
+        return lastWriteTime;
+    }
+
+    public void setLastWriteTime(long lastWriteTime) {
+        this.lastWriteTime = lastWriteTime;
+    }
+
+    /**
+     * Records a write at {@code now}; the first call also sets the creation time.
+     */
+    public void markWritten(long now) {
+        if (createdTime == 0) {
+            createdTime = now;
+        }
+        lastWriteTime = now;
+    }
+
+    /**
+     * Day and hourly statistics of this bucket. Rebuilt from the columns on first access after
+     * they were replaced wholesale ({@link #setColumns}, {@link #setReadings}).
+     *
+     * <p>{@link #addReading} does not reject readings outside the bucket's UTC day. They stay in
+     * the columns and widen the rollup's time span, but are left out of its counts, totals and
+     * hourly rollups, so an aggregation answered from the rollup matches a column scan, which
+     * skips them as well.
+     */
+    public BucketRollup getRollup() {
+        if (rollup == null) {
+            BucketRollup rebuilt = new BucketRollup();
+            long[] ts = getTimestamps();
+            double[] vs = getVoltages();
+            double[] cs = getCurrents();
+            double[] ps = getPowers();
+            for (int i = 0; i < readingCount; i++) {
+                rollUp(rebuilt, ts[i], vs[i], cs[i], ps[i]);
+            }
+            rollup = rebuilt;
+        }
+        return rollup;
+    }
+
+    /**
+     * Installs a rollup restored by a deserializer. It must describe the current columns.
+     */
+    public void setRollup(BucketRollup rollup) {
+        this.rollup = rollup;
     }
 
     public void addReading(MeterReading reading) {
+        addReading(reading.getReportedTs(), reading.getVoltage(), reading.getCurrent(), reading.getPower());
+    }
+
+    public void addReading(long reportedTs, double voltage, double current, double power) {
         ensureCapacity(readingCount + 1);
-        readings[readingCount++] = reading;
-        touch();
+        slotPresence = null;
+        timestamps[readingCount] = reportedTs;
+        voltages[readingCount] = voltage;
+        currents[readingCount] = current;
+        powers[readingCount] = power;
+        readingCount++;
+        if (rollup != null) {
+            rollUp(rollup, reportedTs, voltage, current, power);
+        }
     }
 
     public void addReadings(MeterReading[] newReadings) {
@@ -122,40 +361,257 @@ public class MeterBucket {
             return;
         }
         ensureCapacity(readingCount + newReadings.length);
-        System.arraycopy(newReadings, 0, readings, readingCount, newReadings.length);
-        readingCount += newReadings.length;
-        touch();
+        slotPresence = null;
+        for (MeterReading reading : newReadings) {
+            timestamps[readingCount] = reading.getReportedTs();
+            voltages[readingCount] = reading.getVoltage();
+            currents[readingCount] = reading.getCurrent();
+            powers[readingCount] = reading.getPower();
+            if (rollup != null) {
+                rollUp(rollup, reading.getReportedTs(), reading.getVoltage(), reading.getCurrent(), reading.getPower());
+            }
+            readingCount++;
+        }
     }
 
-    private void ensureCapacity(int minCapacity) {
-        if (readings == null) {
-            readings = new MeterReading[Math.max(minCapacity, 16)];
+    /**
+     * Appends the first {@code count} rows of the given columns, growing storage at most once.
+     */
+    public void addReadings(long[] newTimestamps, double[] newVoltages, double[] newCurrents,
+                            double[] newPowers, int count) {
+        if (count == 0) {
             return;
         }
-        if (readings.length < minCapacity) {
-            int newCapacity = Math.max(minCapacity, readings.length + (readings.length >> 1));
-            MeterReading[] newReadings = new MeterReading[newCapacity];
-            System.arraycopy(readings, 0, newReadings, 0, readingCount);
-            readings = newReadings;
+        ensureCapacity(readingCount + count);
+        slotPresence = null;
+        System.arraycopy(newTimestamps, 0, timestamps, readingCount, count);
+        System.arraycopy(newVoltages, 0, voltages, readingCount, count);
+        System.arraycopy(newCurrents, 0, currents, readingCount, count);
+        System.arraycopy(newPowers, 0, powers, readingCount, count);
+        if (rollup != null) {
+            for (int i = 0; i < count; i++) {
+                rollUp(rollup, newTimestamps[i], newVoltages[i], newCurrents[i], newPowers[i]);
+            }
+        }
+        readingCount += count;
+    }
+
+    /**
+     * Writes the first {@code count} rows of the given columns into fixed slots of
+     * {@code slotMillis}, slot index {@code (ts - dayStart) / slotMillis}.
+     *
+     * <p>A reading for a free slot is inserted at its sorted position (an append when it is
+     * the latest so far), one identical to the slot's current reading is skipped, and any other
+     * reading replaces it. Replaying a feed therefore leaves the bucket unchanged. A bucket
+     * holding rows that were appended out of order or with duplicates is first reduced to one
+     * row per slot, the last written winning.
+     *
+     * @param slotMillis slot length; must divide a day
+     * @return number of rows inserted or replaced
+     * @throws IllegalArgumentException if a reading lies outside the bucket's UTC day
+     */
+    public int upsertReadings(long[] newTimestamps, double[] newVoltages, double[] newCurrents,
+                              double[] newPowers, int count, long slotMillis) {
+        if (count == 0) {
+            return 0;
+        }
+        loadColumns();
+        if (slotPresence == null || this.slotMillis != slotMillis) {
+            buildSlotPresence(slotMillis);
+        }
+        int changed = 0;
+        for (int i = 0; i < count; i++) {
+            if (upsert(newTimestamps[i], newVoltages[i], newCurrents[i], newPowers[i])) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    private boolean upsert(long reportedTs, double voltage, double current, double power) {
+        int slot = slotOf(reportedTs);
+        long slotStart = bucketDateEpochDay * MILLIS_PER_DAY + slot * slotMillis;
+        int index = readingCount > 0 && timestamps[readingCount - 1] < slotStart
+                ? readingCount : firstAtOrAfter(slotStart);
+        long bit = 1L << slot;
+        if ((slotPresence[slot >>> 6] & bit) != 0) {
+            if (timestamps[index] == reportedTs
+                    && Double.compare(voltages[index], voltage) == 0
+                    && Double.compare(currents[index], current) == 0
+                    && Double.compare(powers[index], power) == 0) {
+                return false;
+            }
+            timestamps[index] = reportedTs;
+            voltages[index] = voltage;
+            currents[index] = current;
+            powers[index] = power;
+            rollup = null;
+            return true;
+        }
+
+        ensureCapacity(readingCount + 1);
+        int tail = readingCount - index;
+        if (tail > 0) {
+            System.arraycopy(timestamps, index, timestamps, index + 1, tail);
+            System.arraycopy(voltages, index, voltages, index + 1, tail);
+            System.arraycopy(currents, index, currents, index + 1, tail);
+            System.arraycopy(powers, index, powers, index + 1, tail);
+        }
+        timestamps[index] = reportedTs;
+        voltages[index] = voltage;
+        currents[index] = current;
+        powers[index] = power;
+        readingCount++;
+        slotPresence[slot >>> 6] |= bit;
+        if (rollup != null) {
+            rollup.add(reportedTs, voltage, current, power);
+        }
+        return true;
+    }
+
+    /**
+     * Marks the occupied slots of {@code slotMillis}. Rows that are not strictly ordered by slot
+     * (written by the append path) are re-inserted one by one to restore one sorted row per slot.
+     */
+    private void buildSlotPresence(long slotMillis) {
+        if (slotMillis <= 0 || MILLIS_PER_DAY % slotMillis != 0) {
+            throw new IllegalArgumentException("Slot length must divide a day: " + slotMillis);
+        }
+        this.slotMillis = slotMillis;
+        this.slotPresence = new long[(int) ((MILLIS_PER_DAY / slotMillis + 63) >>> 6)];
+        int previous = -1;
+        for (int i = 0; i < readingCount; i++) {
+            int slot = slotOf(timestamps[i]);
+            if (slot <= previous) {
+                rebuildSlots();
+                return;
+            }
+            slotPresence[slot >>> 6] |= 1L << slot;
+            previous = slot;
+        }
+    }
+
+    private void rebuildSlots() {
+        long[] oldTimestamps = timestamps;
+        double[] oldVoltages = voltages;
+        double[] oldCurrents = currents;
+        double[] oldPowers = powers;
+        int oldCount = readingCount;
+        timestamps = new long[oldCount];
+        voltages = new double[oldCount];
+        currents = new double[oldCount];
+        powers = new double[oldCount];
+        readingCount = 0;
+        rollup = null;
+        Arrays.fill(slotPresence, 0L);
+        for (int i = 0; i < oldCount; i++) {
+            upsert(oldTimestamps[i], oldVoltages[i], oldCurrents[i], oldPowers[i]);
+        }
+    }
+
+    private void rollUp(BucketRollup target, long reportedTs, double voltage, double current, double power) {
+        long offset = reportedTs - bucketDateEpochDay * MILLIS_PER_DAY;
+        if (offset >= 0 && offset < MILLIS_PER_DAY) {
+            target.add(reportedTs, voltage, current, power);
+        } else {
+            target.extendTimeSpan(reportedTs);
+        }
+    }
+
+    private int slotOf(long reportedTs) {
+        long offset = reportedTs - bucketDateEpochDay * MILLIS_PER_DAY;
+        if (offset < 0 || offset >= MILLIS_PER_DAY) {
+            throw new IllegalArgumentException("Reading at " + reportedTs + " is outside bucket day "
+                    + bucketDateEpochDay);
+        }
+        return (int) (offset / slotMillis);
+    }
+
+    /**
+     * Index of the first row with a timestamp of at least {@code ts}; rows must be sorted.
+     */
+    private int firstAtOrAfter(long ts) {
+        int low = 0;
+        int high = readingCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[mid] < ts) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        loadColumns();
+        if (timestamps.length < minCapacity) {
+            resize(Math.max(minCapacity, timestamps.length + (timestamps.length >> 1)));
+        }
+    }
+
+    private void resize(int newCapacity) {
+        long[] newTimestamps = new long[newCapacity];
+        double[] newVoltages = new double[newCapacity];
+        double[] newCurrents = new double[newCapacity];
+        double[] newPowers = new double[newCapacity];
+        if (readingCount > 0) {
+            System.arraycopy(timestamps, 0, newTimestamps, 0, readingCount);
+            System.arraycopy(voltages, 0, newVoltages, 0, readingCount);
+            System.arraycopy(currents, 0, newCurrents, 0, readingCount);
+            System.arraycopy(powers, 0, newPowers, 0, readingCount);
+        }
+        timestamps = newTimestamps;
+        voltages = newVoltages;
+        currents = newCurrents;
+        powers = newPowers;
+    }
+
+    private void loadColumns() {
+        if (columnLoader != null) {
+            getTimestamps();
+            getVoltages();
+            getCurrents();
+            getPowers();
+            columnLoader = null;
         }
     }
 
     public void trimToSize() {
-        if (readings != null && readings.length > readingCount) {
+        loadColumns();
+        if (timestamps.length > readingCount) {
             if (readingCount == 0) {
-                readings = new MeterReading[0];
+                timestamps = EMPTY_LONGS;
+                voltages = EMPTY_DOUBLES;
+                currents = EMPTY_DOUBLES;
+                powers = EMPTY_DOUBLES;
             } else {
-                MeterReading[] trimmed = new MeterReading[readingCount];
-                System.arraycopy(readings, 0, trimmed, 0, readingCount);
-                readings = trimmed;
+                resize(readingCount);
             }
         }
     }
 
+    /**
+     * Source of encoded columns, decoded one at a time on first access.
+     *
+     * @see #setColumnLoader(ColumnLoader, int)
+     */
+    public interface ColumnLoader {
+
+        long[] loadTimestamps();
+
+        double[] loadVoltages();
+
+        double[] loadCurrents();
+
+        double[] loadPowers();
+    }
+
     @Override
     public String toString() {
         return "MeterBucket{" +
-                "meterId='" + meterId + '\'' +
+                "meterOrdinal=" + meterOrdinal +
                 ", bucketDateEpochDay=" + bucketDateEpochDay +
                 ", readingCount=" + readingCount +
                 '}';
@@ -1,88 +1,66 @@
 package org.e4s.model;
 
+import com.hazelcast.partition.PartitionAware;
+
 import java.time.LocalDate;
-import java.util.Objects;
 
 /**
- * Composite key for identifying a daily meter bucket in the cache.
- * 
- * <p>The key format is "meterId:YYYY-MM-DD" (e.g., "MTR-001:2026-02-18").
- * This design enables:
- * <ul>
- *   <li>Efficient prefix scanning for time-range queries on a single meter</li>
- *   <li>Natural partitioning by day for eviction operations</li>
- *   <li>Human-readable keys for debugging and monitoring</li>
- * </ul>
+ * Composite key for identifying a daily meter bucket in the cache; the key type of the
+ * bucket maps.
  * 
- * <p>Key storage optimization:
- * <ul>
- *   <li>Stores day as epoch day (long) instead of LocalDate object</li>
- *   <li>Epoch day uses 8 bytes vs ~24 bytes for LocalDate</li>
- * </ul>
+ * <p>Holds the meter's int ordinal, assigned once per meter id by the server's meter registry,
+ * and the UTC epoch day. Meter id strings are translated to ordinals at the service boundary,
+ * so the cache stores neither a date string nor a meter id per key.
  * 
- * <p>Example usage:
- * <pre>{@code
- * MeterDayKey key = MeterDayKey.of("MTR-001", LocalDate.of(2026, 2, 18));
- * String keyString = key.toKeyString(); // "MTR-001:2026-02-18"
+ * <p>Partitioned by meter: {@link #getPartitionKey()} is the ordinal alone, so every day of a
+ * meter lands in the same partition (and on the same member). A range query or per-meter
+ * aggregation over many days is then one partition operation instead of one per day. The
+ * partition of a meter is that of its ordinal, {@code getPartition(Integer.valueOf(ordinal))}.
  * 
- * // Parse from string
- * MeterDayKey parsed = MeterDayKey.parse("MTR-001:2026-02-18");
- * }</pre>
+ * <p>Immutable. The cache stores it in binary form
+ * ({@link org.e4s.model.serialization.MeterDayKeyHazelcastSerializer}: two 4-byte ints), and
+ * the hash code is computed once at construction.
  * 
  * @see MeterBucket
  */
-public class MeterDayKey {
-
-    private String meterId;
-    private long dayEpochDay;
+public final class MeterDayKey implements PartitionAware<Integer> {
 
-    public MeterDayKey() {
-    }
+    private final int meterOrdinal;
+    private final long dayEpochDay;
+    private final int hash;
 
-    public MeterDayKey(String meterId, long dayEpochDay) {
-        this.meterId = meterId;
+    public MeterDayKey(int meterOrdinal, long dayEpochDay) {
+        this.meterOrdinal = meterOrdinal;
         this.dayEpochDay = dayEpochDay;
+        this.hash = 31 * meterOrdinal + Long.hashCode(dayEpochDay);
     }
 
-    public MeterDayKey(String meterId, LocalDate day) {
-        this.meterId = meterId;
-        this.dayEpochDay = day.toEpochDay();
-    }
-
-    public static MeterDayKey of(String meterId, LocalDate day) {
-        return new MeterDayKey(meterId, day);
+    public MeterDayKey(int meterOrdinal, LocalDate day) {
+        this(meterOrdinal, day.toEpochDay());
     }
 
-    public static MeterDayKey parse(String key) {
-        String[] parts = key.split(":");
-        if (parts.length != 2) {
-            throw new IllegalArgumentException("Invalid key format: " + key);
-        }
-        return new MeterDayKey(parts[0], LocalDate.parse(parts[1]).toEpochDay());
+    public static MeterDayKey of(int meterOrdinal, LocalDate day) {
+        return new MeterDayKey(meterOrdinal, day);
     }
 
-    public String getMeterId() {
-        return meterId;
-    }
-
-    public void setMeterId(String meterId) {
-        this.meterId = meterId;
+    public int getMeterOrdinal() {
+        return meterOrdinal;
     }
 
     public long getDayEpochDay() {
         return dayEpochDay;
     }
 
-    public void setDayEpochDay(long dayEpochDay) {
-        this.dayEpochDay = dayEpochDay;
-    }
-
     public LocalDate getDay() {
         return LocalDate.ofEpochDay(dayEpochDay);
     }
 
-    public String toKeyString() {
-        return meterId + ":" + getDay().toString();
+    /**
+     * @return the meter ordinal, so all days of a meter share a partition
+     */
+    @Override
+    public Integer getPartitionKey() {
+        return meterOrdinal;
     }
 
     @Override
@@ -90,16 +68,19 @@ public class MeterDayKey {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         MeterDayKey that = (MeterDayKey) o;
-        return dayEpochDay == that.dayEpochDay && Objects.equals(meterId, that.meterId);
+        return meterOrdinal == that.meterOrdinal && dayEpochDay == that.dayEpochDay;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(meterId, dayEpochDay);
+        return hash;
     }
 
+    /**
+     * @return "#ordinal:YYYY-MM-DD", e.g. "#7:2026-02-18", for logs
+     */
     @Override
     public String toString() {
-        return toKeyString();
+        return "#" + meterOrdinal + ":" + getDay();
     }
 }
@@ -0,0 +1,62 @@
+package org.e4s.model.serialization;
+
+/**
+ * Sequential reader over a bit stream produced by {@link BitWriter}.
+ *
+ * @see BitWriter
+ */
+final class BitReader {
+
+    private byte[] buffer;
+    private int bitLimit;
+    private int bitPosition;
+
+    BitReader() {
+        this(new byte[0], 0, 0);
+    }
+
+    BitReader(byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+
+    BitReader(byte[] buffer, int offset, int length) {
+        reset(buffer, offset, length);
+    }
+
+    /**
+     * Points the reader at a new stream so one instance can be reused per thread.
+     */
+    void reset(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.bitPosition = offset << 3;
+        this.bitLimit = (offset + length) << 3;
+    }
+
+    boolean readBit() {
+        checkAvailable(1);
+        boolean bit = (buffer[bitPosition >>> 3] & (0x80 >>> (bitPosition & 7))) != 0;
+        bitPosition++;
+        return bit;
+    }
+
+    long readBits(int bitCount) {
+        checkAvailable(bitCount);
+        long value = 0;
+        while (bitCount > 0) {
+            int byteIndex = bitPosition >>> 3;
+            int availableInByte = 8 - (bitPosition & 7);
+            int chunk = Math.min(availableInByte, bitCount);
+            int bits = (buffer[byteIndex] >>> (availableInByte - chunk)) & ((1 << chunk) - 1);
+            value = (value << chunk) | bits;
+            bitPosition += chunk;
+            bitCount -= chunk;
+        }
+        return value;
+    }
+
+    private void checkAvailable(int bitCount) {
+        if (bitPosition + bitCount > bitLimit) {
+            throw new IllegalStateException("Bit stream exhausted at bit " + bitPosition);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.e4s.model.serialization;
+
+import java.util.Arrays;
+
+/**
+ * Append-only bit stream backed by a growable byte array.
+ *
+ * <p>Bits are written most-significant first. Used by {@link GorillaCodec} to pack
+ * delta-of-delta timestamps and XOR-encoded doubles at sub-byte granularity.
+ * Serializers keep one instance per thread and {@link #reset()} it between values.
+ *
+ * @see BitReader
+ */
+final class BitWriter {
+
+    private byte[] buffer;
+    private int bitPosition;
+
+    BitWriter(int initialCapacityBytes) {
+        this.buffer = new byte[Math.max(initialCapacityBytes, 16)];
+    }
+
+    void writeBit(boolean bit) {
+        ensureCapacity(1);
+        if (bit) {
+            buffer[bitPosition >>> 3] |= (byte) (0x80 >>> (bitPosition & 7));
+        }
+        bitPosition++;
+    }
+
+    /**
+     * Writes the lowest {@code bitCount} bits of {@code value}, most-significant first.
+     */
+    void writeBits(long value, int bitCount) {
+        ensureCapacity(bitCount);
+        while (bitCount > 0) {
+            int byteIndex = bitPosition >>> 3;
+            int freeInByte = 8 - (bitPosition & 7);
+            int chunk = Math.min(freeInByte, bitCount);
+            int bits = (int) (value >>> (bitCount - chunk)) & ((1 << chunk) - 1);
+            buffer[byteIndex] |= (byte) (bits << (freeInByte - chunk));
+            bitPosition += chunk;
+            bitCount -= chunk;
+        }
+    }
+
+    int bitLength() {
+        return bitPosition;
+    }
+
+    int byteLength() {
+        return (bitPosition + 7) >>> 3;
+    }
+
+    /**
+     * @return the backing array; only the first {@link #byteLength()} bytes are meaningful
+     */
+    byte[] buffer() {
+        return buffer;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, byteLength());
+    }
+
+    /**
+     * Clears the written bits so the writer (and its grown buffer) can be reused.
+     */
+    void reset() {
+        Arrays.fill(buffer, 0, byteLength(), (byte) 0);
+        bitPosition = 0;
+    }
+
+    private void ensureCapacity(int extraBits) {
+        int requiredBytes = (bitPosition + extraBits + 7) >>> 3;
+        if (requiredBytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(requiredBytes, buffer.length + (buffer.length >> 1)));
+        }
+    }
+}
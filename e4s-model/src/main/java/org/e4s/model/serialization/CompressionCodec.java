@@ -0,0 +1,68 @@
+package org.e4s.model.serialization;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Byte-level compression SPI applied by the Hazelcast serializers on top of their encoding.
+ * 
+ * <p>Every serialized value starts with a one-byte header holding {@link #getId()}, and
+ * readers resolve the codec from that header through {@link CompressionCodecs#byId(byte)}.
+ * Changing the configured codec therefore never makes already stored values unreadable:
+ * old entries keep decoding with the codec they were written with.
+ * 
+ * <p>Built-in codecs:
+ * <ul>
+ *   <li>{@link CompressionCodecs#NONE} - id 0, no compression, lowest ingest CPU</li>
+ *   <li>{@link CompressionCodecs#DEFLATE} - id 1, ZLIB level 6, smallest footprint</li>
+ *   <li>{@link CompressionCodecs#DEFLATE_FAST} - id 2, ZLIB level 1, faster ingest with most of the ratio</li>
+ * </ul>
+ * 
+ * <p>Further codecs (e.g. LZ4 or Zstd bindings) can be added by implementing this interface
+ * with an unused id and calling {@link CompressionCodecs#register(CompressionCodec)} on every
+ * member before the Hazelcast instance starts.
+ * 
+ * <p>Implementations must be thread-safe. They should keep per-thread compressor state and
+ * scratch buffers so that steady-state calls do not allocate.
+ * 
+ * @see CompressionCodecs
+ */
+public interface CompressionCodec {
+
+    /**
+     * @return the id written as one-byte header in front of each value; unique per codec
+     */
+    byte getId();
+
+    /**
+     * @return the name used to select this codec in configuration (e.g. {@code "deflate"})
+     */
+    String getName();
+
+    /**
+     * Writes {@code length} bytes of {@code data} to {@code out} in this codec's format,
+     * including whatever length information {@link #read(DataInput, ReusableBuffer)} needs.
+     */
+    void write(DataOutput out, byte[] data, int length) throws IOException;
+
+    /**
+     * Reads one block written by {@link #write(DataOutput, byte[], int)} and stores it uncompressed
+     * at the start of {@code target}'s array.
+     *
+     * @return the uncompressed length
+     */
+    default int read(DataInput in, ReusableBuffer target) throws IOException {
+        return read(in, target, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Same as {@link #read(DataInput, ReusableBuffer)} for untrusted input: the declared lengths are
+     * checked before any buffer is sized for them.
+     *
+     * @param maxLength the largest uncompressed length accepted
+     * @return the uncompressed length
+     * @throws IOException if a declared length is negative or exceeds {@code maxLength}
+     */
+    int read(DataInput in, ReusableBuffer target, int maxLength) throws IOException;
+}
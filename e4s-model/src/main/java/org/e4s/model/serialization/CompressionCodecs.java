@@ -0,0 +1,196 @@
+package org.e4s.model.serialization;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Registry and built-in implementations of {@link CompressionCodec}.
+ * 
+ * <p>Usage:
+ * <pre>{@code
+ * CompressionCodec codec = CompressionCodecs.byName("deflate-fast");
+ * new MeterBucketHazelcastSerializer(codec);
+ * 
+ * // when reading, resolve from the stored header byte
+ * CompressionCodec stored = CompressionCodecs.byId(in.readByte());
+ * }</pre>
+ * 
+ * @see CompressionCodec
+ */
+public final class CompressionCodecs {
+
+    public static final CompressionCodec NONE = new NoCompressionCodec();
+
+    public static final CompressionCodec DEFLATE = new DeflateCodec((byte) 1, "deflate", 6);
+
+    public static final CompressionCodec DEFLATE_FAST = new DeflateCodec((byte) 2, "deflate-fast", Deflater.BEST_SPEED);
+
+    private static final CompressionCodec[] CODECS_BY_ID = new CompressionCodec[256];
+
+    static {
+        register(NONE);
+        register(DEFLATE);
+        register(DEFLATE_FAST);
+    }
+
+    private CompressionCodecs() {
+    }
+
+    public static synchronized void register(CompressionCodec codec) {
+        int slot = codec.getId() & 0xFF;
+        CompressionCodec existing = CODECS_BY_ID[slot];
+        if (existing != null && existing != codec) {
+            throw new IllegalArgumentException("Codec id " + slot + " already registered by " + existing.getName());
+        }
+        CODECS_BY_ID[slot] = codec;
+    }
+
+    public static CompressionCodec byId(byte id) {
+        CompressionCodec codec = CODECS_BY_ID[id & 0xFF];
+        if (codec == null) {
+            throw new IllegalArgumentException("Unknown compression codec id: " + (id & 0xFF));
+        }
+        return codec;
+    }
+
+    public static synchronized CompressionCodec byName(String name) {
+        String normalized = name.trim().toLowerCase(Locale.ROOT);
+        for (CompressionCodec codec : CODECS_BY_ID) {
+            if (codec != null && codec.getName().equals(normalized)) {
+                return codec;
+            }
+        }
+        throw new IllegalArgumentException("Unknown compression codec: " + name);
+    }
+
+    private static int checkLength(int length, int maxLength, String block) throws IOException {
+        if (length < 0 || length > maxLength) {
+            throw new IOException("Invalid " + block + " block length " + length + " (max " + maxLength + ")");
+        }
+        return length;
+    }
+
+    private static final class NoCompressionCodec implements CompressionCodec {
+
+        @Override
+        public byte getId() {
+            return 0;
+        }
+
+        @Override
+        public String getName() {
+            return "none";
+        }
+
+        @Override
+        public void write(DataOutput out, byte[] data, int length) throws IOException {
+            out.writeInt(length);
+            out.write(data, 0, length);
+        }
+
+        @Override
+        public int read(DataInput in, ReusableBuffer target, int maxLength) throws IOException {
+            int length = checkLength(in.readInt(), maxLength, getName());
+            in.readFully(target.ensureCapacity(length), 0, length);
+            return length;
+        }
+    }
+
+    /**
+     * ZLIB codec. Each thread keeps its own {@link Deflater}, {@link Inflater} and compressed-bytes
+     * scratch buffer, reset between calls instead of being recreated, so no native zlib stream
+     * is allocated per value.
+     */
+    private static final class DeflateCodec implements CompressionCodec {
+
+        private final byte id;
+        private final String name;
+        private final ThreadLocal<Deflater> deflaters;
+        private final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(Inflater::new);
+        private final ThreadLocal<ReusableBuffer> compressedBuffers =
+                ThreadLocal.withInitial(() -> new ReusableBuffer(1024));
+
+        private DeflateCodec(byte id, String name, int level) {
+            this.id = id;
+            this.name = name;
+            this.deflaters = ThreadLocal.withInitial(() -> new Deflater(level));
+        }
+
+        @Override
+        public byte getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void write(DataOutput out, byte[] data, int length) throws IOException {
+            Deflater deflater = deflaters.get();
+            deflater.reset();
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+            ReusableBuffer buffer = compressedBuffers.get();
+            try {
+                byte[] compressed = buffer.ensureCapacity(maxCompressedLength(length));
+                int compressedLength = deflater.deflate(compressed, 0, compressed.length);
+                if (!deflater.finished()) {
+                    throw new IOException(name + " output exceeded bound for " + length + " bytes");
+                }
+                out.writeInt(length);
+                out.writeInt(compressedLength);
+                out.write(compressed, 0, compressedLength);
+            } finally {
+                buffer.release();
+            }
+        }
+
+        @Override
+        public int read(DataInput in, ReusableBuffer target, int maxLength) throws IOException {
+            int length = checkLength(in.readInt(), maxLength, name);
+            int compressedLength = checkLength(in.readInt(), maxCompressedLength(length), name + " compressed");
+            ReusableBuffer buffer = compressedBuffers.get();
+            try {
+                byte[] compressed = buffer.ensureCapacity(compressedLength);
+                in.readFully(compressed, 0, compressedLength);
+                return inflate(compressed, compressedLength, target.ensureCapacity(length), length);
+            } finally {
+                buffer.release();
+            }
+        }
+
+        private int inflate(byte[] compressed, int compressedLength, byte[] data, int length) throws IOException {
+            Inflater inflater = inflaters.get();
+            inflater.reset();
+            inflater.setInput(compressed, 0, compressedLength);
+            try {
+                int offset = 0;
+                while (offset < length) {
+                    int inflated = inflater.inflate(data, offset, length - offset);
+                    if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+                        throw new IOException("Truncated " + name + " block");
+                    }
+                    offset += inflated;
+                }
+                return length;
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt " + name + " block", e);
+            }
+        }
+
+        /**
+         * Upper bound of the deflate output for {@code length} input bytes; also the largest
+         * compressed length {@link #read} accepts for a block of that size.
+         */
+        private static int maxCompressedLength(int length) {
+            return (int) Math.min(Integer.MAX_VALUE, length + (long) (length >> 3) + 64);
+        }
+    }
+}
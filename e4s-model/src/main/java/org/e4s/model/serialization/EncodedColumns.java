@@ -0,0 +1,79 @@
+package org.e4s.model.serialization;
+
+import org.e4s.model.MeterBucket;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * The four column blocks of a bucket read by {@link MeterBucketHazelcastSerializer}, kept
+ * compressed and decoded one column at a time when the bucket first asks for it.
+ *
+ * <p>Holds a single copy of the stored blocks; decoding uses the per-thread scratch state of
+ * {@link GorillaCodec} readers and the block's {@link CompressionCodec}.
+ */
+final class EncodedColumns implements MeterBucket.ColumnLoader {
+
+    static final int TIMESTAMPS = 0;
+    static final int VOLTAGES = 1;
+    static final int CURRENTS = 2;
+    static final int POWERS = 3;
+
+    static final int COLUMNS = 4;
+
+    private static final ThreadLocal<BitReader> BIT_READERS = ThreadLocal.withInitial(BitReader::new);
+
+    private static final ThreadLocal<ReusableBuffer> READ_BUFFERS = ThreadLocal.withInitial(() -> new ReusableBuffer(1024));
+
+    private final CompressionCodec codec;
+    private final byte[] blocks;
+    private final int[] offsets;
+    private final int count;
+
+    /**
+     * @param offsets start of each column block in {@code blocks}, plus the end of the last one
+     */
+    EncodedColumns(CompressionCodec codec, byte[] blocks, int[] offsets, int count) {
+        this.codec = codec;
+        this.blocks = blocks;
+        this.offsets = offsets;
+        this.count = count;
+    }
+
+    @Override
+    public long[] loadTimestamps() {
+        return GorillaCodec.readTimestamps(open(TIMESTAMPS), count);
+    }
+
+    @Override
+    public double[] loadVoltages() {
+        return GorillaCodec.readValues(open(VOLTAGES), count);
+    }
+
+    @Override
+    public double[] loadCurrents() {
+        return GorillaCodec.readValues(open(CURRENTS), count);
+    }
+
+    @Override
+    public double[] loadPowers() {
+        return GorillaCodec.readValues(open(POWERS), count);
+    }
+
+    private BitReader open(int column) {
+        int offset = offsets[column];
+        DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(blocks, offset, offsets[column + 1] - offset));
+        ReusableBuffer buffer = READ_BUFFERS.get();
+        try {
+            int length = codec.read(in, buffer);
+            BitReader reader = BIT_READERS.get();
+            reader.reset(buffer.array(), 0, length);
+            return reader;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt column block " + column, e);
+        }
+    }
+}
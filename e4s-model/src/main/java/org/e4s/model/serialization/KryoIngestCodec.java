@@ -0,0 +1,143 @@
+package org.e4s.model.serialization;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.e4s.model.MeterReading;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Binary wire format for ingest batches, sent as {@value #CONTENT_TYPE}.
+ *
+ * <p>Replaces JSON for bulk loads: readings are written with {@link MeterReadingSerializer}
+ * (32 bytes each, no field names) and the payload can be compressed with any registered
+ * {@link CompressionCodec}.
+ *
+ * <p>Format:
+ * <pre>
+ * | Field        | Type          | Description                                  |
+ * |--------------|---------------|----------------------------------------------|
+ * | version      | byte          | {@link #FORMAT_VERSION}                      |
+ * | codec        | byte          | {@link CompressionCodec#getId()}             |
+ * | block        | codec block   | Kryo payload below, written by the codec     |
+ * </pre>
+ * Kryo payload: varint meter count, then per meter a string meterId, a varint reading count
+ * and the readings.
+ *
+ * <p>Thread safety: decoding uses per-thread Kryo, Input and scratch buffer. The scratch buffer
+ * is released after each payload, so one large body does not stay pinned to the servlet thread.
+ */
+public final class KryoIngestCodec {
+
+    public static final String CONTENT_TYPE = "application/x-e4s-kryo";
+
+    public static final byte FORMAT_VERSION = 1;
+
+    /**
+     * Default largest uncompressed payload {@link #decode(InputStream, BiConsumer)} accepts.
+     */
+    public static final int DEFAULT_MAX_PAYLOAD_BYTES = 64 * 1024 * 1024;
+
+    private static final int READING_BYTES = 32;
+
+    private static final ThreadLocal<Kryo> KRYO_POOL = ThreadLocal.withInitial(KryoFactory::createKryo);
+
+    private static final ThreadLocal<Input> KRYO_INPUTS = ThreadLocal.withInitial(Input::new);
+
+    private static final ThreadLocal<ReusableBuffer> READ_BUFFERS = ThreadLocal.withInitial(() -> new ReusableBuffer(4096));
+
+    private KryoIngestCodec() {
+    }
+
+    /**
+     * Encodes readings grouped by meter id.
+     */
+    public static byte[] encode(Map<String, List<MeterReading>> readingsByMeter, CompressionCodec codec) {
+        Output kryoOutput = new Output(4096, -1);
+        Kryo kryo = KRYO_POOL.get();
+        kryoOutput.writeVarInt(readingsByMeter.size(), true);
+        for (Map.Entry<String, List<MeterReading>> entry : readingsByMeter.entrySet()) {
+            List<MeterReading> readings = entry.getValue();
+            kryoOutput.writeString(entry.getKey());
+            kryoOutput.writeVarInt(readings.size(), true);
+            for (MeterReading reading : readings) {
+                kryo.writeObject(kryoOutput, reading);
+            }
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(kryoOutput.position() + 16);
+        try {
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(FORMAT_VERSION);
+            out.writeByte(codec.getId());
+            codec.write(out, kryoOutput.getBuffer(), kryoOutput.position());
+            out.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode ingest batch", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a payload written by {@link #encode}, handing each meter's readings to {@code sink}.
+     *
+     * @return the total number of readings decoded
+     * @throws IOException if the payload is truncated, corrupt or of an unknown version
+     */
+    public static int decode(InputStream body, BiConsumer<String, List<MeterReading>> sink) throws IOException {
+        return decode(body, DEFAULT_MAX_PAYLOAD_BYTES, sink);
+    }
+
+    /**
+     * Same as {@link #decode(InputStream, BiConsumer)}, rejecting payloads whose declared
+     * uncompressed size exceeds {@code maxPayloadBytes} before anything is allocated for them.
+     *
+     * @throws IOException also if the declared payload size is negative or too large
+     */
+    public static int decode(InputStream body, int maxPayloadBytes, BiConsumer<String, List<MeterReading>> sink)
+            throws IOException {
+        DataInputStream in = new DataInputStream(body);
+        byte version = in.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported ingest format version: " + version);
+        }
+        ReusableBuffer buffer = READ_BUFFERS.get();
+        try {
+            CompressionCodec codec = CompressionCodecs.byId(in.readByte());
+            int length = codec.read(in, buffer, maxPayloadBytes);
+
+            Input kryoInput = KRYO_INPUTS.get();
+            kryoInput.setBuffer(buffer.array(), 0, length);
+            Kryo kryo = KRYO_POOL.get();
+            int total = 0;
+            int meterCount = kryoInput.readVarInt(true);
+            for (int m = 0; m < meterCount; m++) {
+                String meterId = kryoInput.readString();
+                int readingCount = kryoInput.readVarInt(true);
+                if (readingCount < 0 || readingCount > (kryoInput.limit() - kryoInput.position()) / READING_BYTES) {
+                    throw new IOException("Reading count " + readingCount + " exceeds payload for " + meterId);
+                }
+                List<MeterReading> readings = new ArrayList<>(readingCount);
+                for (int i = 0; i < readingCount; i++) {
+                    readings.add(kryo.readObject(kryoInput, MeterReading.class));
+                }
+                sink.accept(meterId, readings);
+                total += readingCount;
+            }
+            return total;
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt ingest payload", e);
+        } finally {
+            buffer.release();
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 import com.esotericsoftware.kryo.Serializer;
+import org.e4s.model.BucketRollup;
 import org.e4s.model.MeterBucket;
 import org.e4s.model.MeterReading;
 
@@ -13,67 +14,116 @@ import org.e4s.model.MeterReading;
  * <p>This custom serializer optimizes storage by:
  * <ul>
  *   <li>Writing reading count instead of array length (avoids sparse array serialization)</li>
- *   <li>Serializing readings inline without array wrapper overhead</li>
- *   <li>Using primitive writes for timestamp and measurement values</li>
+ *   <li>Writing the bucket column by column, so similar values sit next to each other
+ *       and compress better under Deflater</li>
+ *   <li>Bulk primitive writes/reads straight from/into the bucket's columns,
+ *       without allocating a {@link MeterReading} per row</li>
  * </ul>
  * 
  * <p>Binary format:
  * <pre>
  * | Field            | Type                    | Notes                        |
  * |------------------|-------------------------|------------------------------|
- * | meterId          | String (var len)        | Meter identifier             |
+ * | meterOrdinal     | varint                  | Meter registry ordinal       |
  * | bucketDate       | long                    | Epoch day                    |
  * | readingCount     | int                     | Number of readings           |
- * | readings[]       | MeterReading[count]     | Inline reading data (32b ea) |
- * | lastAccessTime   | long                    | For eviction decisions       |
- * | createdTime      | long                    | For eviction decisions       |
+ * | createdTime      | long                    | Epoch millis of first write  |
+ * | lastWriteTime    | long                    | Epoch millis of latest write |
+ * | timestamps[]     | long[count]             | Epoch millis column          |
+ * | voltages[]       | double[count]           | Voltage column               |
+ * | currents[]       | double[count]           | Current column               |
+ * | powers[]         | double[count]           | Power column                 |
+ * | minTimestamp     | long                    | Earliest reading             |
+ * | maxTimestamp     | long                    | Latest reading               |
+ * | hourMask         | int                     | Hours holding readings       |
+ * | hourRollups      | per hour in hourMask    | varint count, power sum/min/max |
+ * | dayRollups       | double[6]               | Voltage, current sum/min/max |
  * </pre>
  * 
+ * <p>The {@link BucketRollup} is written after the columns so it does not have to be rebuilt
+ * on read.
+ * 
  * <p>Typical size for 96 readings: ~3 KB uncompressed, ~1.5-2 KB after Deflater compression.
  */
 public class MeterBucketSerializer extends Serializer<MeterBucket> {
 
     @Override
     public void write(Kryo kryo, Output output, MeterBucket bucket) {
-        output.writeString(bucket.getMeterId());
+        output.writeVarInt(bucket.getMeterOrdinal(), true);
         output.writeLong(bucket.getBucketDateEpochDay());
-        output.writeInt(bucket.getReadingCount());
-
-        MeterReading[] readings = bucket.getReadings();
-        for (int i = 0; i < bucket.getReadingCount(); i++) {
-            MeterReading reading = readings[i];
-            output.writeLong(reading.getReportedTs());
-            output.writeDouble(reading.getVoltage());
-            output.writeDouble(reading.getCurrent());
-            output.writeDouble(reading.getPower());
-        }
-
-        output.writeLong(bucket.getLastAccessTime());
+        int readingCount = bucket.getReadingCount();
+        output.writeInt(readingCount);
         output.writeLong(bucket.getCreatedTime());
+        output.writeLong(bucket.getLastWriteTime());
+
+        output.writeLongs(bucket.getTimestamps(), 0, readingCount);
+        output.writeDoubles(bucket.getVoltages(), 0, readingCount);
+        output.writeDoubles(bucket.getCurrents(), 0, readingCount);
+        output.writeDoubles(bucket.getPowers(), 0, readingCount);
+        writeRollup(output, bucket.getRollup());
     }
 
     @Override
     public MeterBucket read(Kryo kryo, Input input, Class<? extends MeterBucket> type) {
-        String meterId = input.readString();
+        int meterOrdinal = input.readVarInt(true);
         long bucketDateEpochDay = input.readLong();
         int readingCount = input.readInt();
 
-        MeterBucket bucket = new MeterBucket(meterId, bucketDateEpochDay, readingCount);
-
-        for (int i = 0; i < readingCount; i++) {
-            long reportedTs = input.readLong();
-            double voltage = input.readDouble();
-            double current = input.readDouble();
-            double power = input.readDouble();
-            bucket.addReading(new MeterReading(reportedTs, voltage, current, power));
-        }
-
-        bucket.setLastAccessTime(input.readLong());
+        MeterBucket bucket = new MeterBucket(meterOrdinal, bucketDateEpochDay);
         bucket.setCreatedTime(input.readLong());
+        bucket.setLastWriteTime(input.readLong());
+        bucket.setColumns(
+                input.readLongs(readingCount),
+                input.readDoubles(readingCount),
+                input.readDoubles(readingCount),
+                input.readDoubles(readingCount),
+                readingCount);
+        bucket.setRollup(readRollup(input));
 
         return bucket;
     }
 
+    private static void writeRollup(Output output, BucketRollup rollup) {
+        output.writeLong(rollup.getMinTimestamp());
+        output.writeLong(rollup.getMaxTimestamp());
+        int mask = 0;
+        for (int hour = 0; hour < BucketRollup.HOURS; hour++) {
+            if (rollup.getHourCount(hour) > 0) {
+                mask |= 1 << hour;
+            }
+        }
+        output.writeInt(mask);
+        for (int hour = 0; hour < BucketRollup.HOURS; hour++) {
+            if ((mask & (1 << hour)) != 0) {
+                output.writeVarInt(rollup.getHourCount(hour), true);
+                output.writeDouble(rollup.getHourSum(hour));
+                output.writeDouble(rollup.getHourMin(hour));
+                output.writeDouble(rollup.getHourMax(hour));
+            }
+        }
+        for (int field : new int[]{BucketRollup.VOLTAGE, BucketRollup.CURRENT}) {
+            output.writeDouble(rollup.getSum(field));
+            output.writeDouble(rollup.getMin(field));
+            output.writeDouble(rollup.getMax(field));
+        }
+    }
+
+    private static BucketRollup readRollup(Input input) {
+        BucketRollup rollup = new BucketRollup();
+        rollup.setTimeSpan(input.readLong(), input.readLong());
+        int mask = input.readInt();
+        for (int hour = 0; hour < BucketRollup.HOURS; hour++) {
+            if ((mask & (1 << hour)) != 0) {
+                rollup.setHour(hour, input.readVarInt(true),
+                        input.readDouble(), input.readDouble(), input.readDouble());
+            }
+        }
+        for (int field : new int[]{BucketRollup.VOLTAGE, BucketRollup.CURRENT}) {
+            rollup.setDayStats(field, input.readDouble(), input.readDouble(), input.readDouble());
+        }
+        return rollup;
+    }
+
     @Override
     public boolean isImmutable() {
         return false;
@@ -0,0 +1,46 @@
+package org.e4s.model.serialization;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+import org.e4s.model.MeterDayKey;
+
+import java.io.IOException;
+
+/**
+ * Hazelcast StreamSerializer for {@link MeterDayKey}, the key of the bucket maps.
+ * 
+ * <p>Binary format:
+ * <pre>
+ * | Field            | Type             | Notes                             |
+ * |------------------|------------------|-----------------------------------|
+ * | meterOrdinal     | int              | Meter registry ordinal            |
+ * | dayEpochDay      | int              | UTC epoch day                     |
+ * </pre>
+ * 
+ * <p>8 bytes per key regardless of the meter id, against 22 for the string
+ * "MTR-001:2026-02-18", and writing it formats no date. The encoding is deterministic, as
+ * Hazelcast compares and partitions keys by their serialized bytes.
+ * 
+ * @see MeterBucketHazelcastSerializer
+ */
+public class MeterDayKeyHazelcastSerializer implements StreamSerializer<MeterDayKey> {
+
+    public static final int TYPE_ID = 2003;
+
+    @Override
+    public void write(ObjectDataOutput out, MeterDayKey object) throws IOException {
+        out.writeInt(object.getMeterOrdinal());
+        out.writeInt(Math.toIntExact(object.getDayEpochDay()));
+    }
+
+    @Override
+    public MeterDayKey read(ObjectDataInput in) throws IOException {
+        return new MeterDayKey(in.readInt(), in.readInt());
+    }
+
+    @Override
+    public int getTypeId() {
+        return TYPE_ID;
+    }
+}
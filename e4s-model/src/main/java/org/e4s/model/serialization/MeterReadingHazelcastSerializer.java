@@ -9,60 +9,68 @@ import com.hazelcast.nio.serialization.StreamSerializer;
 import org.e4s.model.MeterReading;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.util.zip.Deflater;
-import java.util.zip.DeflaterOutputStream;
-import java.util.zip.InflaterInputStream;
 
 /**
- * Hazelcast StreamSerializer for {@link MeterReading} using Kryo + Deflater compression.
+ * Hazelcast StreamSerializer for {@link MeterReading} using Kryo and a configurable
+ * {@link CompressionCodec}.
  * 
- * <p>This serializer combines two optimization techniques:
+ * <p>This serializer combines two steps:
  * <ol>
  *   <li><b>Kryo serialization:</b> Efficient binary format (32 bytes per reading)</li>
- *   <li><b>Deflater compression:</b> ZLIB compression for additional size reduction</li>
+ *   <li><b>Compression codec:</b> selected with {@code e4s.serialization.reading-codec},
+ *       written as a one-byte header so values stay readable when the setting changes</li>
  * </ol>
  * 
- * <p>Compression configuration:
- * <ul>
- *   <li>Level 6: Balanced between compression ratio and CPU usage</li>
- *   <li>Typical compression ratio: ~50% for time-series data (similar values compress well)</li>
- * </ul>
- * 
  * <p>Thread safety: Uses ThreadLocal Kryo pool for thread-safe, lock-free operation.
- * Each thread gets its own Kryo instance, avoiding synchronization overhead.
+ * Each thread gets its own Kryo instance and reuses its own Kryo Output/Input and
+ * codec scratch buffer, avoiding synchronization overhead and per-call buffer allocation.
  * 
- * <p>Note: For single readings, compression overhead may exceed benefits.
- * This serializer is primarily used for consistency with bucket serialization.
+ * <p>Note: For single readings, compression overhead usually exceeds benefits,
+ * so the default codec is {@link CompressionCodecs#NONE}.
  * 
  * @see MeterBucketHazelcastSerializer
  * @see KryoFactory
+ * @see CompressionCodecs
  */
 public class MeterReadingHazelcastSerializer implements StreamSerializer<MeterReading> {
 
     public static final int TYPE_ID = 2001;
 
-    private static final int COMPRESSION_LEVEL = 6;
-
     private static final ThreadLocal<Kryo> KRYO_POOL = ThreadLocal.withInitial(KryoFactory::createKryo);
 
+    private static final ThreadLocal<Output> KRYO_OUTPUTS = ThreadLocal.withInitial(() -> new Output(64, -1));
+
+    private static final ThreadLocal<Input> KRYO_INPUTS = ThreadLocal.withInitial(Input::new);
+
+    private static final ThreadLocal<ReusableBuffer> READ_BUFFERS = ThreadLocal.withInitial(() -> new ReusableBuffer(64));
+
+    private final CompressionCodec codec;
+
+    public MeterReadingHazelcastSerializer() {
+        this(CompressionCodecs.NONE);
+    }
+
+    public MeterReadingHazelcastSerializer(CompressionCodec codec) {
+        this.codec = codec;
+    }
+
     @Override
     public void write(ObjectDataOutput out, MeterReading object) throws IOException {
-        Deflater deflater = new Deflater(COMPRESSION_LEVEL);
-        DeflaterOutputStream deflaterStream = new DeflaterOutputStream((OutputStream) out, deflater);
-        Output kryoOutput = new Output(deflaterStream, 512);
-
+        Output kryoOutput = KRYO_OUTPUTS.get();
+        kryoOutput.reset();
         KRYO_POOL.get().writeObject(kryoOutput, object);
-        kryoOutput.flush();
-        deflaterStream.finish();
-        deflater.end();
+
+        out.writeByte(codec.getId());
+        codec.write(out, kryoOutput.getBuffer(), kryoOutput.position());
     }
 
     @Override
     public MeterReading read(ObjectDataInput in) throws IOException {
-        InflaterInputStream inflaterStream = new InflaterInputStream((InputStream) in);
-        Input kryoInput = new Input(inflaterStream, 512);
+        CompressionCodec storedCodec = CompressionCodecs.byId(in.readByte());
+        ReusableBuffer buffer = READ_BUFFERS.get();
+        int length = storedCodec.read(in, buffer);
+        Input kryoInput = KRYO_INPUTS.get();
+        kryoInput.setBuffer(buffer.array(), 0, length);
 
         return KRYO_POOL.get().readObject(kryoInput, MeterReading.class);
     }
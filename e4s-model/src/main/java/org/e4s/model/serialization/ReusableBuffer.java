@@ -0,0 +1,64 @@
+package org.e4s.model.serialization;
+
+/**
+ * Growable scratch byte array meant to be held per thread and reused across
+ * serializer calls, so steady-state (de)serialization does not allocate byte arrays.
+ * 
+ * <p>The array grows on demand. Callers that may see large one-off values (e.g. ingest payloads
+ * on servlet threads) call {@link #release()} when done, which drops an array grown past the
+ * retention limit so a single large request does not pin memory for the life of the thread.
+ * Not thread-safe: keep instances in a {@link ThreadLocal}.
+ * 
+ * @see CompressionCodec#read(java.io.DataInput, ReusableBuffer)
+ */
+public final class ReusableBuffer {
+
+    /**
+     * Default largest array kept across {@link #release()} calls.
+     */
+    public static final int DEFAULT_MAX_RETAINED_CAPACITY = 1 << 20;
+
+    private final int initialCapacity;
+    private final int maxRetainedCapacity;
+    private byte[] array;
+
+    public ReusableBuffer(int initialCapacity) {
+        this(initialCapacity, DEFAULT_MAX_RETAINED_CAPACITY);
+    }
+
+    public ReusableBuffer(int initialCapacity, int maxRetainedCapacity) {
+        this.initialCapacity = initialCapacity;
+        this.maxRetainedCapacity = Math.max(initialCapacity, maxRetainedCapacity);
+        this.array = new byte[initialCapacity];
+    }
+
+    /**
+     * @return the current backing array; contents beyond the length last reported by its writer are undefined
+     */
+    public byte[] array() {
+        return array;
+    }
+
+    /**
+     * Makes the backing array at least {@code capacity} bytes long, discarding its contents if it grows.
+     *
+     * @return the (possibly new) backing array
+     */
+    public byte[] ensureCapacity(int capacity) {
+        if (array.length < capacity) {
+            int grown = (int) Math.min(Integer.MAX_VALUE - 8, array.length + (long) (array.length >> 1));
+            array = new byte[Math.max(capacity, grown)];
+        }
+        return array;
+    }
+
+    /**
+     * Shrinks the backing array back to its initial capacity if it grew past the retention limit.
+     * The array previously returned must no longer be used.
+     */
+    public void release() {
+        if (array.length > maxRetainedCapacity) {
+            array = new byte[initialCapacity];
+        }
+    }
+}
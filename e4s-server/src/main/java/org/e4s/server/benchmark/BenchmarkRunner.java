@@ -4,6 +4,7 @@ import org.e4s.model.MeterReading;
 import org.e4s.server.service.MeterCacheService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
@@ -24,6 +25,9 @@ public class BenchmarkRunner {
 
     private final MeterCacheService meterCacheService;
 
+    @Value("${e4s.serialization.bucket-codec:none}")
+    private String bucketCodec;
+
     public BenchmarkRunner(MeterCacheService meterCacheService) {
         this.meterCacheService = meterCacheService;
     }
@@ -89,6 +93,7 @@ public class BenchmarkRunner {
         result.setMaxLatencyUs(maxLatency.get() / 1000.0);
         result.setBucketCount(meterCacheService.getBucketCount());
         result.setMemoryBytes(meterCacheService.getMemoryUsageBytes());
+        result.setBucketCodec(bucketCodec);
         
         log.info("Ingest benchmark completed: {}", result);
         return result;
@@ -156,6 +161,7 @@ public class BenchmarkRunner {
         result.setMaxLatencyUs(maxLatency.get() / 1000.0);
         result.setBucketCount(meterCacheService.getBucketCount());
         result.setMemoryBytes(meterCacheService.getMemoryUsageBytes());
+        result.setBucketCodec(bucketCodec);
         
         log.info("Batch ingest benchmark completed: {}", result);
         return result;
@@ -226,6 +232,7 @@ public class BenchmarkRunner {
         result.setMaxLatencyUs(maxLatency.get() / 1000.0);
         result.setBucketCount(meterCacheService.getBucketCount());
         result.setMemoryBytes(meterCacheService.getMemoryUsageBytes());
+        result.setBucketCodec(bucketCodec);
         
         log.info("Query benchmark completed: {}", result);
         return result;
@@ -295,6 +302,7 @@ public class BenchmarkRunner {
         result.setMaxLatencyUs(maxLatency.get() / 1000.0);
         result.setBucketCount(meterCacheService.getBucketCount());
         result.setMemoryBytes(meterCacheService.getMemoryUsageBytes());
+        result.setBucketCodec(bucketCodec);
         
         log.info("Aggregation benchmark completed: {}", result);
         return result;
@@ -403,6 +411,7 @@ public class BenchmarkRunner {
         private double maxLatencyUs;
         private long bucketCount;
         private long memoryBytes;
+        private String bucketCodec;
 
         public String getOperationType() {
             return operationType;
@@ -488,13 +497,21 @@ public class BenchmarkRunner {
             return memoryBytes / (1024.0 * 1024.0);
         }
 
+        public String getBucketCodec() {
+            return bucketCodec;
+        }
+
+        public void setBucketCodec(String bucketCodec) {
+            this.bucketCodec = bucketCodec;
+        }
+
         @Override
         public String toString() {
             return String.format(
                     "BenchmarkResult{type=%s, ops=%d, readings=%d, duration=%dms, ops/sec=%.2f, " +
-                    "latency[avg=%.2fµs, min=%.2fµs, max=%.2fµs], buckets=%d, memory=%.2fMB}",
+                    "latency[avg=%.2fµs, min=%.2fµs, max=%.2fµs], buckets=%d, memory=%.2fMB, codec=%s}",
                     operationType, totalOps, totalReadings, durationMs, opsPerSecond,
-                    avgLatencyUs, minLatencyUs, maxLatencyUs, bucketCount, getMemoryMB());
+                    avgLatencyUs, minLatencyUs, maxLatencyUs, bucketCount, getMemoryMB(), bucketCodec);
         }
     }
 }
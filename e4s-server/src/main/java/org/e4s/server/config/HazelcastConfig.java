@@ -1,23 +1,33 @@
 package org.e4s.server.config;
 
 import com.hazelcast.config.Config;
+import com.hazelcast.config.IndexConfig;
+import com.hazelcast.config.IndexType;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.SerializerConfig;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
 import org.e4s.model.MeterBucket;
+import org.e4s.model.MeterDayKey;
 import org.e4s.model.MeterReading;
+import org.e4s.model.serialization.CompressionCodec;
+import org.e4s.model.serialization.CompressionCodecs;
 import org.e4s.model.serialization.MeterBucketHazelcastSerializer;
+import org.e4s.model.serialization.MeterDayKeyHazelcastSerializer;
 import org.e4s.model.serialization.MeterReadingHazelcastSerializer;
+import org.e4s.server.processor.E4sDataSerializableFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.LocalDate;
+
 /**
  * Hazelcast configuration for the e4s-server time-series cache.
  * 
  * <p>This configuration sets up:
  * <ul>
- *   <li>Custom Kryo + Deflater serializers for optimal memory usage</li>
+ *   <li>Custom Gorilla (buckets) and Kryo + Deflater (readings) serializers for optimal memory usage</li>
  *   <li>IMap configuration for meter data storage</li>
  *   <li>Backup strategy for cluster resilience</li>
  *   <li>Eviction policy for memory management</li>
@@ -29,6 +39,11 @@ import org.springframework.context.annotation.Configuration;
  *   <li>{@link MeterReading} - TYPE_ID 2001</li>
  *   <li>{@link MeterBucket} - TYPE_ID 2002</li>
  * </ul>
+ * The compression codec of each serializer is chosen with {@code e4s.serialization.bucket-codec}
+ * and {@code e4s.serialization.reading-codec} ({@code none}, {@code deflate-fast}, {@code deflate}).
+ * Each value carries its codec id, so the setting can change without invalidating stored data.
+ * Server-side processors are {@code IdentifiedDataSerializable} and created by
+ * {@link E4sDataSerializableFactory} (FACTORY_ID 2000).
  * 
  * <h2>Map Configuration</h2>
  * The "meter-data" map is configured with:
@@ -38,6 +53,8 @@ import org.springframework.context.annotation.Configuration;
  *   <li><b>TTL:</b> 0 - no automatic expiration (handled by custom eviction job)</li>
  *   <li><b>Eviction:</b> LRU with 75% heap limit as safety net</li>
  * </ul>
+ * The "meter-access" map holds the last read time of recently read buckets for the idle check
+ * of retention, see {@link #METER_ACCESS_MAP}.
  * 
  * <h2>Deployment</h2>
  * Currently configured for embedded mode (single node). For cluster deployment:
@@ -52,36 +69,120 @@ public class HazelcastConfig {
 
     public static final String METER_DATA_MAP = "meter-data";
 
+    /**
+     * Name prefix of the day-sharded bucket maps, {@code meter-data-<first UTC day>}, used
+     * instead of {@link #METER_DATA_MAP} when {@code e4s.storage.days-per-shard} is set.
+     */
+    public static final String METER_DATA_SHARD_PREFIX = METER_DATA_MAP + "-";
+
+    /**
+     * Last read time (epoch millis) of recently read buckets, by {@link MeterDayKey}. Kept apart
+     * from the buckets so a read never rewrites one; co-partitioned with them by meter ordinal.
+     */
+    public static final String METER_ACCESS_MAP = "meter-access";
+
+    /**
+     * Meter registry: meter id to ordinal.
+     */
+    public static final String METER_ORDINALS_MAP = "meter-ordinals";
+
+    /**
+     * Meter registry: ordinal to meter id.
+     */
+    public static final String METER_IDS_MAP = "meter-ids";
+
+    /**
+     * Indexed (hash) bucket attribute: the meter ordinal, for "all days of meter M".
+     */
+    public static final String METER_ORDINAL_ATTRIBUTE = "meterOrdinal";
+
+    /**
+     * Indexed (sorted) bucket attribute: the UTC epoch day, for day ranges and retention.
+     */
+    public static final String BUCKET_DAY_ATTRIBUTE = "bucketDateEpochDay";
+
+    @Value("${e4s.serialization.bucket-codec:none}")
+    private String bucketCodec;
+
+    @Value("${e4s.serialization.reading-codec:none}")
+    private String readingCodec;
+
     @Bean
     public HazelcastInstance hazelcastInstance() {
-        Config config = new Config();
+        Config config = createConfig(CompressionCodecs.byName(bucketCodec), CompressionCodecs.byName(readingCodec));
         config.setInstanceName("e4s-server");
+        return Hazelcast.newHazelcastInstance(config);
+    }
+
+    /**
+     * Builds the serialization and map configuration without starting a member,
+     * so tests can run against the same setup as the server.
+     */
+    public static Config createConfig(CompressionCodec bucketCodec, CompressionCodec readingCodec) {
+        Config config = new Config();
 
         config.getSerializationConfig().addSerializerConfig(
                 new SerializerConfig()
                         .setTypeClass(MeterReading.class)
-                        .setImplementation(new MeterReadingHazelcastSerializer())
+                        .setImplementation(new MeterReadingHazelcastSerializer(readingCodec))
+        );
+
+        config.getSerializationConfig().addSerializerConfig(
+                new SerializerConfig()
+                        .setTypeClass(MeterDayKey.class)
+                        .setImplementation(new MeterDayKeyHazelcastSerializer())
         );
 
         config.getSerializationConfig().addSerializerConfig(
                 new SerializerConfig()
                         .setTypeClass(MeterBucket.class)
-                        .setImplementation(new MeterBucketHazelcastSerializer())
+                        .setImplementation(new MeterBucketHazelcastSerializer(bucketCodec))
         );
 
-        MapConfig meterDataMapConfig = new MapConfig(METER_DATA_MAP);
+        config.getSerializationConfig().addDataSerializableFactory(
+                E4sDataSerializableFactory.FACTORY_ID, new E4sDataSerializableFactory());
+
+        config.addMapConfig(meterDataMapConfig(METER_DATA_MAP));
+        config.addMapConfig(meterDataMapConfig(METER_DATA_SHARD_PREFIX + "*"));
+        config.addMapConfig(meterAccessMapConfig());
+
+        return config;
+    }
+
+    /**
+     * Name of the shard map holding the buckets of the days starting at {@code firstEpochDay}.
+     */
+    public static String shardMapName(long firstEpochDay) {
+        return METER_DATA_SHARD_PREFIX + LocalDate.ofEpochDay(firstEpochDay);
+    }
+
+    /**
+     * Read times are advisory: a lost entry only lets a bucket be evicted earlier, so the map
+     * keeps one asynchronous backup and no statistics.
+     */
+    private static MapConfig meterAccessMapConfig() {
+        MapConfig meterAccessMapConfig = new MapConfig(METER_ACCESS_MAP);
+        meterAccessMapConfig.setBackupCount(0);
+        meterAccessMapConfig.setAsyncBackupCount(1);
+        meterAccessMapConfig.setStatisticsEnabled(false);
+        return meterAccessMapConfig;
+    }
+
+    private static MapConfig meterDataMapConfig(String name) {
+        MapConfig meterDataMapConfig = new MapConfig(name);
         meterDataMapConfig.setInMemoryFormat(com.hazelcast.config.InMemoryFormat.BINARY);
         meterDataMapConfig.setBackupCount(1);
         meterDataMapConfig.setTimeToLiveSeconds(0);
         meterDataMapConfig.setMaxIdleSeconds(0);
         meterDataMapConfig.setStatisticsEnabled(true);
+        // Both attributes are plain getters on MeterBucket and are read from the uncompressed
+        // value header, so keeping the indexes current never decodes the reading columns.
+        meterDataMapConfig.addIndexConfig(new IndexConfig(IndexType.HASH, METER_ORDINAL_ATTRIBUTE));
+        meterDataMapConfig.addIndexConfig(new IndexConfig(IndexType.SORTED, BUCKET_DAY_ATTRIBUTE));
         meterDataMapConfig.getEvictionConfig()
                 .setEvictionPolicy(com.hazelcast.config.EvictionPolicy.LRU)
                 .setSize(75)
                 .setMaxSizePolicy(com.hazelcast.config.MaxSizePolicy.USED_HEAP_PERCENTAGE);
-
-        config.addMapConfig(meterDataMapConfig);
-
-        return Hazelcast.newHazelcastInstance(config);
+        return meterDataMapConfig;
     }
 }
@@ -0,0 +1,32 @@
+package org.e4s.server.config;
+
+import org.e4s.server.store.OffHeapBucketStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Selects where buckets are stored, with {@code e4s.storage.engine}:
+ * <ul>
+ *   <li>{@code hazelcast} (default) - the Hazelcast bucket maps, see {@link HazelcastConfig}</li>
+ *   <li>{@code off-heap} - an {@link OffHeapBucketStore} on this member, sized by
+ *       {@code e4s.storage.off-heap.arena-mb} and {@code e4s.storage.off-heap.max-mb}</li>
+ * </ul>
+ * The off-heap arenas are direct buffers addressed by {@code int}, so {@code arena-mb} is at most
+ * 2047, and the JVM's {@code -XX:MaxDirectMemorySize} must be at least {@code max-mb}.
+ */
+@Configuration
+public class StorageConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "e4s.storage.engine", havingValue = "off-heap")
+    public OffHeapBucketStore offHeapBucketStore(@Value("${e4s.storage.off-heap.arena-mb:64}") int arenaMb,
+                                                 @Value("${e4s.storage.off-heap.max-mb:4096}") long maxMb) {
+        long arenaBytes = arenaMb * 1024L * 1024;
+        if (arenaMb <= 0 || arenaBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("e4s.storage.off-heap.arena-mb must be between 1 and 2047, was " + arenaMb);
+        }
+        return new OffHeapBucketStore((int) arenaBytes, maxMb * 1024 * 1024);
+    }
+}
@@ -0,0 +1,129 @@
+package org.e4s.server.controller;
+
+import org.e4s.model.serialization.KryoIngestCodec;
+import org.e4s.server.service.MeterCacheService;
+import org.e4s.server.store.BucketStoreFullException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+public class AdminController {
+
+    private final MeterCacheService meterCacheService;
+
+    @Value("${e4s.ingest.max-payload-bytes:" + KryoIngestCodec.DEFAULT_MAX_PAYLOAD_BYTES + "}")
+    private int maxPayloadBytes;
+
+    public AdminController(MeterCacheService meterCacheService) {
+        this.meterCacheService = meterCacheService;
+    }
+
+    /**
+     * Cold-start load. Replaces the buckets of every meter-day in the body, so each meter-day
+     * must be sent complete in one request. A request without a meter id or readings, or with a
+     * null reading, rejects the whole body with 400 before anything is written.
+     */
+    @PostMapping("/bulk-load")
+    public ResponseEntity<BulkLoadResponse> bulkLoad(
+            @RequestBody List<MeterCacheService.IngestRequest> requests) {
+        return load(requests);
+    }
+
+    @PostMapping(value = "/bulk-load", consumes = KryoIngestCodec.CONTENT_TYPE)
+    public ResponseEntity<BulkLoadResponse> bulkLoadKryo(InputStream body) {
+        List<MeterCacheService.IngestRequest> requests = new ArrayList<>();
+        try {
+            KryoIngestCodec.decode(body, maxPayloadBytes, (meterId, readings) -> {
+                MeterCacheService.IngestRequest request = new MeterCacheService.IngestRequest();
+                request.setMeterId(meterId);
+                request.setReadings(readings);
+                requests.add(request);
+            });
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(new BulkLoadResponse("invalid", 0, 0, 0));
+        }
+        return load(requests);
+    }
+
+    private ResponseEntity<BulkLoadResponse> load(List<MeterCacheService.IngestRequest> requests) {
+        for (MeterCacheService.IngestRequest request : requests) {
+            if (request == null || request.getMeterId() == null || request.getReadings() == null
+                    || request.getReadings().contains(null)) {
+                return ResponseEntity.badRequest().body(new BulkLoadResponse("invalid", 0, 0, 0));
+            }
+        }
+        long start = System.currentTimeMillis();
+        int buckets = meterCacheService.bulkLoad(requests);
+        int readings = requests.stream()
+                .mapToInt(r -> r.getReadings().size())
+                .sum();
+        long durationMs = System.currentTimeMillis() - start;
+        return ResponseEntity.ok(new BulkLoadResponse("success", buckets, readings, durationMs));
+    }
+
+    /**
+     * 507 when the off-heap store has no room left for the load.
+     */
+    @ExceptionHandler(BucketStoreFullException.class)
+    public ResponseEntity<BulkLoadResponse> handleStoreFull(BucketStoreFullException e) {
+        return ResponseEntity.status(HttpStatus.INSUFFICIENT_STORAGE).body(new BulkLoadResponse("full", 0, 0, 0));
+    }
+
+    public static class BulkLoadResponse {
+        private String status;
+        private int buckets;
+        private int readings;
+        private long durationMs;
+
+        public BulkLoadResponse(String status, int buckets, int readings, long durationMs) {
+            this.status = status;
+            this.buckets = buckets;
+            this.readings = readings;
+            this.durationMs = durationMs;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public int getBuckets() {
+            return buckets;
+        }
+
+        public void setBuckets(int buckets) {
+            this.buckets = buckets;
+        }
+
+        public int getReadings() {
+            return readings;
+        }
+
+        public void setReadings(int readings) {
+            this.readings = readings;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        public void setDurationMs(long durationMs) {
+            this.durationMs = durationMs;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.e4s.server.controller;
 
+import org.e4s.server.service.AsyncIngestPipeline;
 import org.e4s.server.service.MeterCacheService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,9 +12,11 @@ import org.springframework.web.bind.annotation.RestController;
 public class CacheStatsController {
 
     private final MeterCacheService meterCacheService;
+    private final AsyncIngestPipeline asyncIngestPipeline;
 
-    public CacheStatsController(MeterCacheService meterCacheService) {
+    public CacheStatsController(MeterCacheService meterCacheService, AsyncIngestPipeline asyncIngestPipeline) {
         this.meterCacheService = meterCacheService;
+        this.asyncIngestPipeline = asyncIngestPipeline;
     }
 
     @GetMapping("/stats")
@@ -29,6 +32,9 @@ public class CacheStatsController {
         response.setHeapCostBytes(stats.getHeapCostBytes());
         response.setPutCount(stats.getPutCount());
         response.setGetCount(stats.getGetCount());
+        response.setAsyncPendingReadings(asyncIngestPipeline.getPendingReadings());
+        response.setAsyncRejectedReadings(asyncIngestPipeline.getRejectedReadings());
+        response.setAsyncFailedReadings(asyncIngestPipeline.getFailedReadings());
         
         return ResponseEntity.ok(response);
     }
@@ -60,6 +66,9 @@ public class CacheStatsController {
         private long heapCostBytes;
         private long putCount;
         private long getCount;
+        private long asyncPendingReadings;
+        private long asyncRejectedReadings;
+        private long asyncFailedReadings;
 
         public long getTotalEntries() {
             return totalEntries;
@@ -124,6 +133,30 @@ public class CacheStatsController {
         public void setGetCount(long getCount) {
             this.getCount = getCount;
         }
+
+        public long getAsyncPendingReadings() {
+            return asyncPendingReadings;
+        }
+
+        public void setAsyncPendingReadings(long asyncPendingReadings) {
+            this.asyncPendingReadings = asyncPendingReadings;
+        }
+
+        public long getAsyncRejectedReadings() {
+            return asyncRejectedReadings;
+        }
+
+        public void setAsyncRejectedReadings(long asyncRejectedReadings) {
+            this.asyncRejectedReadings = asyncRejectedReadings;
+        }
+
+        public long getAsyncFailedReadings() {
+            return asyncFailedReadings;
+        }
+
+        public void setAsyncFailedReadings(long asyncFailedReadings) {
+            this.asyncFailedReadings = asyncFailedReadings;
+        }
     }
 
     public static class MemoryResponse {
@@ -1,10 +1,22 @@
 package org.e4s.server.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.e4s.model.MeterReading;
+import org.e4s.model.serialization.KryoIngestCodec;
+import org.e4s.server.service.AsyncIngestPipeline;
+import org.e4s.server.service.IngestStreamReader;
 import org.e4s.server.service.MeterCacheService;
+import org.e4s.server.store.BucketStoreFullException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -12,15 +24,29 @@ import java.util.List;
 public class IngestController {
 
     private final MeterCacheService meterCacheService;
+    private final AsyncIngestPipeline asyncIngestPipeline;
+    private final ObjectMapper objectMapper;
 
-    public IngestController(MeterCacheService meterCacheService) {
+    @Value("${e4s.ingest.stream-chunk-size:10000}")
+    private int streamChunkSize;
+
+    @Value("${e4s.ingest.max-payload-bytes:" + KryoIngestCodec.DEFAULT_MAX_PAYLOAD_BYTES + "}")
+    private int maxPayloadBytes;
+
+    public IngestController(MeterCacheService meterCacheService, AsyncIngestPipeline asyncIngestPipeline,
+                            ObjectMapper objectMapper) {
         this.meterCacheService = meterCacheService;
+        this.asyncIngestPipeline = asyncIngestPipeline;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/ingest")
     public ResponseEntity<IngestResponse> ingestSingle(
             @RequestParam String meterId,
             @RequestBody MeterReading reading) {
+        if (asyncIngestPipeline.isEnabled()) {
+            return accepted(asyncIngestPipeline.offer(meterId, List.of(reading)), 1);
+        }
         meterCacheService.ingestReading(meterId, reading);
         return ResponseEntity.ok(new IngestResponse("success", 1));
     }
@@ -29,6 +55,12 @@ public class IngestController {
     public ResponseEntity<IngestResponse> ingestBatch(
             @RequestParam String meterId,
             @RequestBody List<MeterReading> readings) {
+        if (readings.contains(null)) {
+            return ResponseEntity.badRequest().body(new IngestResponse("invalid", 0));
+        }
+        if (asyncIngestPipeline.isEnabled()) {
+            return accepted(asyncIngestPipeline.offer(meterId, readings), readings.size());
+        }
         meterCacheService.ingestReadings(meterId, readings);
         return ResponseEntity.ok(new IngestResponse("success", readings.size()));
     }
@@ -36,13 +68,108 @@ public class IngestController {
     @PostMapping("/batch")
     public ResponseEntity<IngestResponse> batchIngest(
             @RequestBody List<MeterCacheService.IngestRequest> requests) {
-        meterCacheService.ingestBatch(requests);
+        return ingestRequests(requests);
+    }
+
+    /**
+     * Same as {@link #batchIngest(List)} for {@value KryoIngestCodec#CONTENT_TYPE} bodies,
+     * which skip JSON parsing entirely.
+     */
+    @PostMapping(value = "/batch", consumes = KryoIngestCodec.CONTENT_TYPE)
+    public ResponseEntity<IngestResponse> batchIngestKryo(InputStream body) {
+        List<MeterCacheService.IngestRequest> requests = new ArrayList<>();
+        try {
+            KryoIngestCodec.decode(body, maxPayloadBytes, (meterId, readings) -> {
+                MeterCacheService.IngestRequest request = new MeterCacheService.IngestRequest();
+                request.setMeterId(meterId);
+                request.setReadings(readings);
+                requests.add(request);
+            });
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(new IngestResponse("invalid", 0));
+        }
+        return ingestRequests(requests);
+    }
+
+    /**
+     * Streaming variant of {@link #batchIngest(List)} for large uploads: the body (a JSON array of
+     * ingest requests, or NDJSON with one request per line) is parsed incrementally and ingested
+     * in chunks of {@code e4s.ingest.stream-chunk-size} readings, so it is never held in memory.
+     * 
+     * <p>Chunks are ingested as they are parsed. On a malformed body (400), a full async buffer
+     * (429) or a full off-heap store (507) the response count tells how many readings were
+     * ingested before the failure.
+     */
+    @PostMapping(value = "/batch/stream", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<IngestResponse> streamIngest(InputStream body) {
+        IngestStreamReader reader = new IngestStreamReader(objectMapper, streamChunkSize);
+        boolean async = asyncIngestPipeline.isEnabled();
+        boolean complete;
+        try {
+            complete = reader.read(body, chunk -> {
+                if (async) {
+                    return asyncIngestPipeline.offerBatch(chunk);
+                }
+                meterCacheService.ingestBatch(chunk);
+                return true;
+            });
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(new IngestResponse("invalid", reader.getAcceptedCount()));
+        } catch (BucketStoreFullException e) {
+            return storeFull(reader.getAcceptedCount());
+        }
+        if (!complete) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(asyncIngestPipeline.getRetryAfterSeconds()))
+                    .body(new IngestResponse("rejected", reader.getAcceptedCount()));
+        }
+        if (async) {
+            return ResponseEntity.accepted().body(new IngestResponse("accepted", reader.getAcceptedCount()));
+        }
+        return ResponseEntity.ok(new IngestResponse("success", reader.getAcceptedCount()));
+    }
+
+    private ResponseEntity<IngestResponse> ingestRequests(List<MeterCacheService.IngestRequest> requests) {
+        for (MeterCacheService.IngestRequest request : requests) {
+            if (request == null || request.getMeterId() == null || request.getReadings() == null
+                    || request.getReadings().contains(null)) {
+                return ResponseEntity.badRequest().body(new IngestResponse("invalid", 0));
+            }
+        }
         int totalCount = requests.stream()
                 .mapToInt(r -> r.getReadings().size())
                 .sum();
+        if (asyncIngestPipeline.isEnabled()) {
+            return accepted(asyncIngestPipeline.offerBatch(requests), totalCount);
+        }
+        meterCacheService.ingestBatch(requests);
         return ResponseEntity.ok(new IngestResponse("success", totalCount));
     }
 
+    /**
+     * 202 once buffered by the async pipeline, or 429 with a Retry-After hint when its buffer is full.
+     */
+    private ResponseEntity<IngestResponse> accepted(boolean buffered, int count) {
+        if (buffered) {
+            return ResponseEntity.accepted().body(new IngestResponse("accepted", count));
+        }
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(asyncIngestPipeline.getRetryAfterSeconds()))
+                .body(new IngestResponse("rejected", 0));
+    }
+
+    /**
+     * 507 when the off-heap store has no room left; retrying does not help until retention runs.
+     */
+    @ExceptionHandler(BucketStoreFullException.class)
+    public ResponseEntity<IngestResponse> handleStoreFull(BucketStoreFullException e) {
+        return storeFull(0);
+    }
+
+    private ResponseEntity<IngestResponse> storeFull(int count) {
+        return ResponseEntity.status(HttpStatus.INSUFFICIENT_STORAGE).body(new IngestResponse("full", count));
+    }
+
     public static class IngestResponse {
         private String status;
         private int count;
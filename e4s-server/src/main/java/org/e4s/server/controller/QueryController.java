@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -39,6 +40,65 @@ public class QueryController {
         return ResponseEntity.ok(result);
     }
 
+    @GetMapping("/{meterId}/days")
+    public ResponseEntity<List<LocalDate>> bucketDays(@PathVariable String meterId) {
+        return ResponseEntity.ok(meterCacheService.getBucketDays(meterId));
+    }
+
+    /**
+     * Aggregates power across many meters; an empty or missing {@code meterIds} covers the
+     * whole fleet. Meter sets are sent in the body since they can be large.
+     */
+    @PostMapping("/aggregate")
+    public ResponseEntity<MeterCacheService.FleetAggregationResult> queryFleetAggregate(
+            @RequestBody FleetAggregationRequest request) {
+        if (request.getStart() == null || request.getEnd() == null || request.getType() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        MeterCacheService.FleetAggregationResult result = meterCacheService.queryFleetAggregation(
+                request.getMeterIds(), request.getStart(), request.getEnd(), request.getType());
+        return ResponseEntity.ok(result);
+    }
+
+    public static class FleetAggregationRequest {
+        private List<String> meterIds;
+        private Instant start;
+        private Instant end;
+        private MeterCacheService.AggregationType type = MeterCacheService.AggregationType.SUM;
+
+        public List<String> getMeterIds() {
+            return meterIds;
+        }
+
+        public void setMeterIds(List<String> meterIds) {
+            this.meterIds = meterIds;
+        }
+
+        public Instant getStart() {
+            return start;
+        }
+
+        public void setStart(Instant start) {
+            this.start = start;
+        }
+
+        public Instant getEnd() {
+            return end;
+        }
+
+        public void setEnd(Instant end) {
+            this.end = end;
+        }
+
+        public MeterCacheService.AggregationType getType() {
+            return type;
+        }
+
+        public void setType(MeterCacheService.AggregationType type) {
+            this.type = type;
+        }
+    }
+
     public static class QueryResponse {
         private String meterId;
         private int count;
@@ -0,0 +1,144 @@
+package org.e4s.server.processor;
+
+import com.hazelcast.core.ReadOnly;
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import org.e4s.model.BucketRollup;
+import org.e4s.model.MeterBucket;
+import org.e4s.model.MeterDayKey;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Aggregates the power column of one bucket over {@code [startTs, endTs]} on the member that
+ * owns it, returning per-interval partials instead of the readings.
+ * 
+ * <p>Intervals are {@code intervalMillis} long and aligned to {@code offsetMillis} from the
+ * epoch (e.g. weeks starting on Monday). When intervals are whole hours, every hour of the bucket
+ * that lies entirely inside the range is taken from the bucket's {@link BucketRollup}; the
+ * columns are only scanned, once, for hours cut by the range ends. A DAILY or WEEKLY query over
+ * whole days therefore never touches the readings, and only the timestamp and power columns
+ * are ever decoded.
+ * 
+ * <p>Scanned readings whose timestamp falls outside the bucket's day (which
+ * {@link MeterBucket#addReading} does not reject) have no slot in the series and are skipped.
+ * 
+ * <p>Read-only: the entry is not written back and no backup operation is sent.
+ * Returns {@code null} for a missing bucket.
+ */
+public class AggregateRangeProcessor
+        implements EntryProcessor<MeterDayKey, MeterBucket, AggregationSeries>, ReadOnly, IdentifiedDataSerializable {
+
+    private static final long MILLIS_PER_HOUR = 60L * 60 * 1000;
+
+    private static final long MILLIS_PER_DAY = BucketRollup.HOURS * MILLIS_PER_HOUR;
+
+    private static final int ALL_HOURS = (1 << BucketRollup.HOURS) - 1;
+
+    private long startTs;
+    private long endTs;
+    private long intervalMillis;
+    private long offsetMillis;
+
+    public AggregateRangeProcessor() {
+    }
+
+    public AggregateRangeProcessor(long startTs, long endTs, long intervalMillis, long offsetMillis) {
+        this.startTs = startTs;
+        this.endTs = endTs;
+        this.intervalMillis = intervalMillis;
+        this.offsetMillis = offsetMillis;
+    }
+
+    @Override
+    public AggregationSeries process(Map.Entry<MeterDayKey, MeterBucket> entry) {
+        MeterBucket bucket = entry.getValue();
+        if (bucket == null) {
+            return null;
+        }
+        return aggregate(bucket, startTs, endTs, intervalMillis, offsetMillis);
+    }
+
+    /**
+     * Aggregates one bucket as described on this class. Shared with {@link FleetPowerAggregator}.
+     */
+    static AggregationSeries aggregate(MeterBucket bucket, long startTs, long endTs,
+                                       long intervalMillis, long offsetMillis) {
+        long dayStart = bucket.getBucketDateEpochDay() * MILLIS_PER_DAY;
+        long firstStart = intervalStart(dayStart, intervalMillis, offsetMillis);
+        int slotCount = (int) ((intervalStart(dayStart + MILLIS_PER_DAY - 1, intervalMillis, offsetMillis)
+                - firstStart) / intervalMillis) + 1;
+        AggregationSeries series = new AggregationSeries(firstStart, intervalMillis, slotCount);
+        if (!bucket.overlaps(startTs, endTs)) {
+            return series;
+        }
+
+        int rolledUpHours = 0;
+        if (intervalMillis % MILLIS_PER_HOUR == 0 && offsetMillis % MILLIS_PER_HOUR == 0) {
+            BucketRollup rollup = bucket.getRollup();
+            for (int hour = 0; hour < BucketRollup.HOURS; hour++) {
+                long hourStart = dayStart + hour * MILLIS_PER_HOUR;
+                if (hourStart >= startTs && hourStart + MILLIS_PER_HOUR - 1 <= endTs) {
+                    rolledUpHours |= 1 << hour;
+                    if (rollup.getHourCount(hour) > 0) {
+                        series.add((int) ((hourStart - firstStart) / intervalMillis), rollup.getHourCount(hour),
+                                rollup.getHourSum(hour), rollup.getHourMin(hour), rollup.getHourMax(hour));
+                    }
+                }
+            }
+        }
+        if (rolledUpHours == ALL_HOURS) {
+            return series;
+        }
+
+        long from = Math.max(startTs, dayStart);
+        long to = Math.min(endTs, dayStart + MILLIS_PER_DAY - 1);
+        long[] timestamps = bucket.getTimestamps();
+        double[] powers = bucket.getPowers();
+        for (int i = 0; i < bucket.getReadingCount(); i++) {
+            long ts = timestamps[i];
+            if (ts >= from && ts <= to && (rolledUpHours & (1 << BucketRollup.hourOf(ts))) == 0) {
+                series.add((int) ((ts - firstStart) / intervalMillis), powers[i]);
+            }
+        }
+        return series;
+    }
+
+    private static long intervalStart(long ts, long intervalMillis, long offsetMillis) {
+        return Math.floorDiv(ts - offsetMillis, intervalMillis) * intervalMillis + offsetMillis;
+    }
+
+    @Override
+    public EntryProcessor<MeterDayKey, MeterBucket, AggregationSeries> getBackupProcessor() {
+        return null;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return E4sDataSerializableFactory.FACTORY_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return E4sDataSerializableFactory.AGGREGATE_RANGE_PROCESSOR;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeLong(startTs);
+        out.writeLong(endTs);
+        out.writeLong(intervalMillis);
+        out.writeLong(offsetMillis);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        startTs = in.readLong();
+        endTs = in.readLong();
+        intervalMillis = in.readLong();
+        offsetMillis = in.readLong();
+    }
+}
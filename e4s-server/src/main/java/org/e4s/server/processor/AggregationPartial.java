@@ -0,0 +1,88 @@
+package org.e4s.server.processor;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+import java.io.IOException;
+
+/**
+ * Mergeable count/sum/min/max over a set of values, returned by server-side aggregation
+ * instead of the raw readings.
+ * 
+ * <p>An empty partial has count 0, sum 0, min +∞ and max -∞, so it is the identity of
+ * {@link #merge(AggregationPartial)}.
+ */
+public class AggregationPartial implements IdentifiedDataSerializable {
+
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public void add(double value) {
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds {@code count} values already summarized as sum/min/max.
+     */
+    public void add(long count, double sum, double min, double max) {
+        this.count += count;
+        this.sum += sum;
+        this.min = Math.min(this.min, min);
+        this.max = Math.max(this.max, max);
+    }
+
+    public void merge(AggregationPartial other) {
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return E4sDataSerializableFactory.FACTORY_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return E4sDataSerializableFactory.AGGREGATION_PARTIAL;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeLong(count);
+        out.writeDouble(sum);
+        out.writeDouble(min);
+        out.writeDouble(max);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        count = in.readLong();
+        sum = in.readDouble();
+        min = in.readDouble();
+        max = in.readDouble();
+    }
+}
@@ -0,0 +1,97 @@
+package org.e4s.server.processor;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+import java.io.IOException;
+import java.util.function.BiConsumer;
+
+/**
+ * Per-interval {@link AggregationPartial}s for one bucket: slot {@code i} covers
+ * {@code [firstStart + i * intervalMillis, firstStart + (i + 1) * intervalMillis)}.
+ * Empty slots are not allocated and not serialized.
+ */
+public class AggregationSeries implements IdentifiedDataSerializable {
+
+    private long firstStart;
+    private long intervalMillis;
+    private AggregationPartial[] slots;
+
+    public AggregationSeries() {
+    }
+
+    public AggregationSeries(long firstStart, long intervalMillis, int slotCount) {
+        this.firstStart = firstStart;
+        this.intervalMillis = intervalMillis;
+        this.slots = new AggregationPartial[slotCount];
+    }
+
+    public void add(int slot, double value) {
+        AggregationPartial partial = slots[slot];
+        if (partial == null) {
+            partial = new AggregationPartial();
+            slots[slot] = partial;
+        }
+        partial.add(value);
+    }
+
+    /**
+     * Adds pre-aggregated values, e.g. a {@link org.e4s.model.BucketRollup} hour.
+     */
+    public void add(int slot, long count, double sum, double min, double max) {
+        AggregationPartial partial = slots[slot];
+        if (partial == null) {
+            partial = new AggregationPartial();
+            slots[slot] = partial;
+        }
+        partial.add(count, sum, min, max);
+    }
+
+    /**
+     * Visits the non-empty slots in time order with their interval start (epoch millis).
+     */
+    public void forEach(BiConsumer<Long, AggregationPartial> consumer) {
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != null) {
+                consumer.accept(firstStart + i * intervalMillis, slots[i]);
+            }
+        }
+    }
+
+    @Override
+    public int getFactoryId() {
+        return E4sDataSerializableFactory.FACTORY_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return E4sDataSerializableFactory.AGGREGATION_SERIES;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeLong(firstStart);
+        out.writeLong(intervalMillis);
+        out.writeInt(slots.length);
+        for (AggregationPartial slot : slots) {
+            out.writeBoolean(slot != null);
+            if (slot != null) {
+                slot.writeData(out);
+            }
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        firstStart = in.readLong();
+        intervalMillis = in.readLong();
+        slots = new AggregationPartial[in.readInt()];
+        for (int i = 0; i < slots.length; i++) {
+            if (in.readBoolean()) {
+                slots[i] = new AggregationPartial();
+                slots[i].readData(in);
+            }
+        }
+    }
+}
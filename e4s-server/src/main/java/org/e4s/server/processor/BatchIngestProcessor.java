@@ -0,0 +1,74 @@
+package org.e4s.server.processor;
+
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import org.e4s.model.MeterBucket;
+import org.e4s.model.MeterDayKey;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Applies a set of per-key {@link IngestReadingsProcessor}s in one keyed operation.
+ * 
+ * <p>Used with {@code IMap.submitToKeys} for keys that share a partition: the partition
+ * receives one operation carrying only its own meter-days, and each entry is updated
+ * with the readings addressed to its key. Keys are not written separately: each is rebuilt
+ * from the meter ordinal and day its processor already carries.
+ * 
+ * @see E4sDataSerializableFactory
+ */
+public class BatchIngestProcessor
+        implements EntryProcessor<MeterDayKey, MeterBucket, Integer>, IdentifiedDataSerializable {
+
+    private Map<MeterDayKey, IngestReadingsProcessor> processorsByKey;
+
+    public BatchIngestProcessor() {
+    }
+
+    public BatchIngestProcessor(Map<MeterDayKey, IngestReadingsProcessor> processorsByKey) {
+        this.processorsByKey = processorsByKey;
+    }
+
+    @Override
+    public Integer process(Map.Entry<MeterDayKey, MeterBucket> entry) {
+        IngestReadingsProcessor processor = processorsByKey.get(entry.getKey());
+        return processor != null ? processor.process(entry) : null;
+    }
+
+    public Map<MeterDayKey, IngestReadingsProcessor> getProcessorsByKey() {
+        return processorsByKey;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return E4sDataSerializableFactory.FACTORY_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return E4sDataSerializableFactory.BATCH_INGEST_PROCESSOR;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeInt(processorsByKey.size());
+        for (IngestReadingsProcessor processor : processorsByKey.values()) {
+            processor.writeData(out);
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        int size = in.readInt();
+        processorsByKey = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            IngestReadingsProcessor processor = new IngestReadingsProcessor();
+            processor.readData(in);
+            processorsByKey.put(new MeterDayKey(processor.getMeterOrdinal(), processor.getBucketDateEpochDay()), processor);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.e4s.server.processor;
+
+import com.hazelcast.nio.serialization.DataSerializableFactory;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+/**
+ * Hazelcast factory for the server-side operations (entry processors, aggregators, tasks) shipped
+ * to partition owners and the partials they return.
+ * 
+ * <p>Registered in {@link org.e4s.server.config.HazelcastConfig} under {@link #FACTORY_ID},
+ * so processors travel as a factory id + class id instead of a class name and reflective
+ * Java serialization.
+ */
+public class E4sDataSerializableFactory implements DataSerializableFactory {
+
+    public static final int FACTORY_ID = 2000;
+
+    public static final int INGEST_READINGS_PROCESSOR = 1;
+
+    public static final int BATCH_INGEST_PROCESSOR = 2;
+
+    public static final int AGGREGATE_RANGE_PROCESSOR = 3;
+
+    public static final int AGGREGATION_PARTIAL = 4;
+
+    public static final int AGGREGATION_SERIES = 5;
+
+    public static final int FLEET_POWER_AGGREGATOR = 6;
+
+    public static final int EVICTION_PROCESSOR = 7;
+
+    @Override
+    public IdentifiedDataSerializable create(int typeId) {
+        return switch (typeId) {
+            case INGEST_READINGS_PROCESSOR -> new IngestReadingsProcessor();
+            case BATCH_INGEST_PROCESSOR -> new BatchIngestProcessor();
+            case AGGREGATE_RANGE_PROCESSOR -> new AggregateRangeProcessor();
+            case AGGREGATION_PARTIAL -> new AggregationPartial();
+            case AGGREGATION_SERIES -> new AggregationSeries();
+            case FLEET_POWER_AGGREGATOR -> new FleetPowerAggregator();
+            case EVICTION_PROCESSOR -> new EvictionProcessor();
+            default -> throw new IllegalArgumentException("Unknown e4s type id: " + typeId);
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package org.e4s.server.processor;
+
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import org.e4s.model.MeterBucket;
+import org.e4s.model.MeterDayKey;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Removes a bucket on its owner when it was created before {@code createdBefore}, last written
+ * before {@code idleSince} and not read since then.
+ * 
+ * <p>Runs through {@code executeOnEntries} with a predicate on the day index, so candidates are
+ * selected and removed by the partition thread in the same operation: an ingest cannot land
+ * between the check and the removal. Write times are read from the bucket's value header; the
+ * reading columns are never decoded. Reads do not rewrite buckets, so the caller passes the
+ * keys read since {@code idleSince}, taken from the
+ * {@value org.e4s.server.config.HazelcastConfig#METER_ACCESS_MAP} map just before the run. The
+ * backup replica applies the same decision to its copy, which carries the same times, with
+ * the same key set.
+ * 
+ * <p>Returns {@link Boolean#TRUE} for a removed bucket and {@code null} otherwise, so the result
+ * map holds exactly the evicted keys.
+ */
+public class EvictionProcessor
+        implements EntryProcessor<MeterDayKey, MeterBucket, Boolean>, IdentifiedDataSerializable {
+
+    private long createdBefore;
+    private long idleSince;
+    private Set<MeterDayKey> readSince;
+
+    public EvictionProcessor() {
+    }
+
+    public EvictionProcessor(long createdBefore, long idleSince, Set<MeterDayKey> readSince) {
+        this.createdBefore = createdBefore;
+        this.idleSince = idleSince;
+        this.readSince = readSince;
+    }
+
+    @Override
+    public Boolean process(Map.Entry<MeterDayKey, MeterBucket> entry) {
+        MeterBucket bucket = entry.getValue();
+        if (bucket == null || !isEvictable(bucket) || readSince.contains(entry.getKey())) {
+            return null;
+        }
+        entry.setValue(null);
+        return Boolean.TRUE;
+    }
+
+    boolean isEvictable(MeterBucket bucket) {
+        return bucket.getCreatedTime() < createdBefore && bucket.getLastWriteTime() < idleSince;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return E4sDataSerializableFactory.FACTORY_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return E4sDataSerializableFactory.EVICTION_PROCESSOR;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeLong(createdBefore);
+        out.writeLong(idleSince);
+        out.writeInt(readSince.size());
+        for (MeterDayKey key : readSince) {
+            out.writeObject(key);
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        createdBefore = in.readLong();
+        idleSince = in.readLong();
+        int size = in.readInt();
+        readSince = new HashSet<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            readSince.add(in.readObject());
+        }
+    }
+}
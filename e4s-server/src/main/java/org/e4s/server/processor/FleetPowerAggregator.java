@@ -0,0 +1,79 @@
+package org.e4s.server.processor;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import org.e4s.model.MeterBucket;
+import org.e4s.model.MeterDayKey;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Aggregates the power of every bucket selected by a predicate over {@code [startTs, endTs]},
+ * for {@code IMap.aggregate}.
+ * 
+ * <p>Each member accumulates its own partitions' buckets into one {@link AggregationPartial}
+ * (using the bucket rollups, as {@link AggregateRangeProcessor} does); the caller only receives
+ * the combined partials, never the buckets.
+ */
+public class FleetPowerAggregator
+        implements Aggregator<Map.Entry<MeterDayKey, MeterBucket>, AggregationPartial>, IdentifiedDataSerializable {
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    private long startTs;
+    private long endTs;
+    private AggregationPartial partial = new AggregationPartial();
+
+    public FleetPowerAggregator() {
+    }
+
+    public FleetPowerAggregator(long startTs, long endTs) {
+        this.startTs = startTs;
+        this.endTs = endTs;
+    }
+
+    @Override
+    public void accumulate(Map.Entry<MeterDayKey, MeterBucket> entry) {
+        AggregateRangeProcessor.aggregate(entry.getValue(), startTs, endTs, MILLIS_PER_DAY, 0)
+                .forEach((intervalStart, bucketPartial) -> partial.merge(bucketPartial));
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void combine(Aggregator aggregator) {
+        partial.merge(((FleetPowerAggregator) aggregator).partial);
+    }
+
+    @Override
+    public AggregationPartial aggregate() {
+        return partial;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return E4sDataSerializableFactory.FACTORY_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return E4sDataSerializableFactory.FLEET_POWER_AGGREGATOR;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeLong(startTs);
+        out.writeLong(endTs);
+        partial.writeData(out);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        startTs = in.readLong();
+        endTs = in.readLong();
+        partial = new AggregationPartial();
+        partial.readData(in);
+    }
+}
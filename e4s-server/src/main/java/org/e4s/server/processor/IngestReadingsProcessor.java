@@ -0,0 +1,135 @@
+package org.e4s.server.processor;
+
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import org.e4s.model.MeterBucket;
+import org.e4s.model.MeterDayKey;
+import org.e4s.model.MeterReading;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appends the readings of one meter-day to its bucket on the partition owner, or with a
+ * {@code slotMillis} &gt; 0 upserts them into fixed slots ({@link MeterBucket#upsertReadings}).
+ * 
+ * <p>Replaces {@code IMap.compute} with a lambda: the processor runs partition-locally, so the
+ * BINARY bucket is decoded and re-encoded once per invocation no matter how many readings it
+ * carries, and only the readings travel over the network instead of the whole bucket.
+ * Readings are carried as primitive columns, the same layout as {@link MeterBucket}.
+ * 
+ * <p>The bucket is marked written ({@link MeterBucket#markWritten}) at the time the processor was
+ * created on the caller, so primary and backup record the same time.
+ * 
+ * <p>Returns the bucket's reading count after the write.
+ * 
+ * @see E4sDataSerializableFactory
+ */
+public class IngestReadingsProcessor
+        implements EntryProcessor<MeterDayKey, MeterBucket, Integer>, IdentifiedDataSerializable {
+
+    private int meterOrdinal;
+    private long bucketDateEpochDay;
+    private long[] timestamps;
+    private double[] voltages;
+    private double[] currents;
+    private double[] powers;
+    private long slotMillis;
+    private long writeTime;
+
+    public IngestReadingsProcessor() {
+    }
+
+    public IngestReadingsProcessor(int meterOrdinal, long bucketDateEpochDay, List<MeterReading> readings) {
+        this(meterOrdinal, bucketDateEpochDay, readings, 0);
+    }
+
+    /**
+     * @param slotMillis slot length for fixed-slot buckets; 0 appends
+     */
+    public IngestReadingsProcessor(int meterOrdinal, long bucketDateEpochDay, List<MeterReading> readings,
+                                   long slotMillis) {
+        int count = readings.size();
+        this.meterOrdinal = meterOrdinal;
+        this.bucketDateEpochDay = bucketDateEpochDay;
+        this.timestamps = new long[count];
+        this.voltages = new double[count];
+        this.currents = new double[count];
+        this.powers = new double[count];
+        this.slotMillis = slotMillis;
+        this.writeTime = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) {
+            MeterReading reading = readings.get(i);
+            timestamps[i] = reading.getReportedTs();
+            voltages[i] = reading.getVoltage();
+            currents[i] = reading.getCurrent();
+            powers[i] = reading.getPower();
+        }
+    }
+
+    @Override
+    public Integer process(Map.Entry<MeterDayKey, MeterBucket> entry) {
+        int count = timestamps.length;
+        MeterBucket bucket = entry.getValue();
+        if (bucket == null) {
+            bucket = new MeterBucket(meterOrdinal, bucketDateEpochDay, count);
+        }
+        if (slotMillis > 0) {
+            bucket.upsertReadings(timestamps, voltages, currents, powers, count, slotMillis);
+        } else {
+            bucket.addReadings(timestamps, voltages, currents, powers, count);
+        }
+        bucket.markWritten(writeTime);
+        entry.setValue(bucket);
+        return bucket.getReadingCount();
+    }
+
+    public int getMeterOrdinal() {
+        return meterOrdinal;
+    }
+
+    public long getBucketDateEpochDay() {
+        return bucketDateEpochDay;
+    }
+
+    public int getReadingCount() {
+        return timestamps.length;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return E4sDataSerializableFactory.FACTORY_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return E4sDataSerializableFactory.INGEST_READINGS_PROCESSOR;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeInt(meterOrdinal);
+        out.writeLong(bucketDateEpochDay);
+        out.writeLongArray(timestamps);
+        out.writeDoubleArray(voltages);
+        out.writeDoubleArray(currents);
+        out.writeDoubleArray(powers);
+        out.writeLong(slotMillis);
+        out.writeLong(writeTime);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        meterOrdinal = in.readInt();
+        bucketDateEpochDay = in.readLong();
+        timestamps = in.readLongArray();
+        voltages = in.readDoubleArray();
+        currents = in.readDoubleArray();
+        powers = in.readDoubleArray();
+        slotMillis = in.readLong();
+        writeTime = in.readLong();
+    }
+}
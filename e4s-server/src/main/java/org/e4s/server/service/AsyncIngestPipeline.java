@@ -0,0 +1,217 @@
+package org.e4s.server.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.e4s.model.MeterDayKey;
+import org.e4s.model.MeterReading;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Optional asynchronous ingest mode ({@code e4s.ingest.async.enabled}).
+ *
+ * <p>Accepted readings are acknowledged as soon as they are buffered; storage happens in the
+ * background:
+ * <ul>
+ *   <li><b>Bounded buffer:</b> one lock-free queue per worker, with a shared capacity in readings
+ *       reserved by CAS before enqueueing. When it is full {@link #offer} returns {@code false}
+ *       and the controller answers HTTP 429 with a {@code Retry-After} hint.</li>
+ *   <li><b>Partition workers:</b> requests are routed by the Hazelcast partition of their meter,
+ *       so all writes of a meter go through the same worker and workers never contend on a key.</li>
+ *   <li><b>Coalescing:</b> a worker drains up to {@code max-batch-readings}, groups them by
+ *       {@link MeterDayKey} and flushes them with {@link MeterCacheService#ingestGrouped}, so each
+ *       bucket is re-encoded once per flush however many requests touched it.</li>
+ * </ul>
+ *
+ * <p>Delivery is at-most-once. Readings acknowledged but not yet flushed are lost if the node
+ * dies, and readings of a flush that fails (e.g. a storage error) are dropped, not retried: the
+ * client already got its 202. Such losses are counted in {@link #getFailedReadings()} and
+ * reported by {@code /api/v1/cache/stats}. On shutdown the workers drain their queues before
+ * stopping.
+ */
+@Component
+public class AsyncIngestPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncIngestPipeline.class);
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final MeterCacheService meterCacheService;
+
+    @Value("${e4s.ingest.async.enabled:false}")
+    private boolean enabled;
+
+    @Value("${e4s.ingest.async.queue-capacity:1000000}")
+    private int queueCapacity;
+
+    @Value("${e4s.ingest.async.workers:4}")
+    private int workerCount;
+
+    @Value("${e4s.ingest.async.max-batch-readings:10000}")
+    private int maxBatchReadings;
+
+    @Value("${e4s.ingest.async.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    private final AtomicInteger pendingReadings = new AtomicInteger();
+    private final AtomicLong rejectedReadings = new AtomicLong();
+    private final AtomicLong failedReadings = new AtomicLong();
+
+    private List<ConcurrentLinkedQueue<MeterCacheService.IngestRequest>> queues = List.of();
+    private List<Thread> workers = List.of();
+    private volatile boolean running;
+
+    public AsyncIngestPipeline(MeterCacheService meterCacheService) {
+        this.meterCacheService = meterCacheService;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queues = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            queues.add(new ConcurrentLinkedQueue<>());
+        }
+        running = true;
+        workers = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            ConcurrentLinkedQueue<MeterCacheService.IngestRequest> queue = queues.get(i);
+            Thread worker = new Thread(() -> drainLoop(queue), "e4s-ingest-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Async ingest enabled: {} workers, capacity {} readings", workerCount, queueCapacity);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * Buffers the readings of one meter for background storage.
+     *
+     * @return {@code false} if the buffer cannot take all readings; nothing is buffered then
+     */
+    public boolean offer(String meterId, List<MeterReading> readings) {
+        int count = readings.size();
+        if (count == 0) {
+            return true;
+        }
+        if (!reserve(count)) {
+            rejectedReadings.addAndGet(count);
+            return false;
+        }
+        MeterCacheService.IngestRequest request = new MeterCacheService.IngestRequest();
+        request.setMeterId(meterId);
+        request.setReadings(readings);
+        int worker = Math.floorMod(meterCacheService.getPartitionId(meterId), queues.size());
+        queues.get(worker).offer(request);
+        return true;
+    }
+
+    /**
+     * Buffers a multi-meter batch. All-or-nothing: the whole batch is rejected if it does not fit.
+     */
+    public boolean offerBatch(List<MeterCacheService.IngestRequest> requests) {
+        long count = 0;
+        for (MeterCacheService.IngestRequest request : requests) {
+            count += request.getReadings().size();
+        }
+        if (count > queueCapacity || !reserve((int) count)) {
+            rejectedReadings.addAndGet(count);
+            return false;
+        }
+        for (MeterCacheService.IngestRequest request : requests) {
+            int worker = Math.floorMod(meterCacheService.getPartitionId(request.getMeterId()), queues.size());
+            queues.get(worker).offer(request);
+        }
+        return true;
+    }
+
+    public int getPendingReadings() {
+        return pendingReadings.get();
+    }
+
+    public long getRejectedReadings() {
+        return rejectedReadings.get();
+    }
+
+    /**
+     * @return readings acknowledged with 202 but dropped because their flush failed
+     */
+    public long getFailedReadings() {
+        return failedReadings.get();
+    }
+
+    private boolean reserve(int count) {
+        if (!running) {
+            return false;
+        }
+        while (true) {
+            int pending = pendingReadings.get();
+            if (count > queueCapacity - pending) {
+                return false;
+            }
+            if (pendingReadings.compareAndSet(pending, pending + count)) {
+                return true;
+            }
+        }
+    }
+
+    private void drainLoop(ConcurrentLinkedQueue<MeterCacheService.IngestRequest> queue) {
+        while (running || !queue.isEmpty()) {
+            if (queue.isEmpty()) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            flush(queue);
+        }
+    }
+
+    private void flush(ConcurrentLinkedQueue<MeterCacheService.IngestRequest> queue) {
+        Map<MeterDayKey, List<MeterReading>> readingsByDay = new LinkedHashMap<>();
+        int drained = 0;
+        MeterCacheService.IngestRequest request;
+        try {
+            while (drained < maxBatchReadings && (request = queue.poll()) != null) {
+                drained += request.getReadings().size();
+                MeterCacheService.groupByDay(meterCacheService.registerMeter(request.getMeterId()),
+                        request.getReadings(), readingsByDay);
+            }
+            meterCacheService.ingestGrouped(readingsByDay);
+        } catch (RuntimeException e) {
+            failedReadings.addAndGet(drained);
+            log.error("Async ingest flush of {} readings failed", drained, e);
+        } finally {
+            pendingReadings.addAndGet(-drained);
+        }
+    }
+}
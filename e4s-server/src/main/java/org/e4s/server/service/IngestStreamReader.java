@@ -0,0 +1,148 @@
+package org.e4s.server.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.e4s.model.MeterReading;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Incremental parser for large ingest uploads.
+ *
+ * <p>Accepts either a JSON array of {@link MeterCacheService.IngestRequest} objects (the
+ * {@code /api/v1/batch} body) or NDJSON with one such object per line. Readings are parsed one
+ * at a time with Jackson's streaming API and handed to the sink in chunks of at most
+ * {@code chunkSize} readings, so heap use depends on the chunk size, not the upload size.
+ *
+ * <p>Readings that appear before their object's {@code meterId} field are held until it is
+ * read; clients should write {@code meterId} first.
+ *
+ * <p>Not thread-safe: create one reader per request.
+ */
+public class IngestStreamReader {
+
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final Map<String, List<MeterReading>> chunk = new LinkedHashMap<>();
+    private int chunkCount;
+    private int acceptedCount;
+    private boolean stopped;
+
+    public IngestStreamReader(ObjectMapper objectMapper, int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Parses {@code body} to the end, or until {@code sink} refuses a chunk.
+     *
+     * @param sink receives each chunk; returning {@code false} stops reading
+     * @return {@code true} if the whole body was consumed, {@code false} if the sink stopped it
+     * @throws IOException on malformed input; chunks already handed to the sink stay ingested
+     */
+    public boolean read(InputStream body, Predicate<List<MeterCacheService.IngestRequest>> sink) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token != null && token != JsonToken.END_ARRAY && !stopped) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new JsonParseException(parser, "Expected an ingest request object, got " + token);
+                }
+                readRequest(parser, sink);
+                token = parser.nextToken();
+            }
+        }
+        flush(sink);
+        return !stopped;
+    }
+
+    /**
+     * @return readings handed to the sink and accepted so far
+     */
+    public int getAcceptedCount() {
+        return acceptedCount;
+    }
+
+    private void readRequest(JsonParser parser, Predicate<List<MeterCacheService.IngestRequest>> sink)
+            throws IOException {
+        String meterId = null;
+        List<MeterReading> early = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME && !stopped) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("meterId".equals(field)) {
+                meterId = parser.getValueAsString();
+                if (meterId == null) {
+                    throw new JsonParseException(parser, "Ingest request with null meterId");
+                }
+                if (early != null) {
+                    for (MeterReading reading : early) {
+                        add(meterId, reading, sink);
+                    }
+                    early = null;
+                }
+            } else if ("readings".equals(field)) {
+                if (value != JsonToken.START_ARRAY) {
+                    throw new JsonParseException(parser, "Expected readings array");
+                }
+                while (parser.nextToken() != JsonToken.END_ARRAY && !stopped) {
+                    if (parser.currentToken() == JsonToken.VALUE_NULL) {
+                        throw new JsonParseException(parser, "Null reading in readings array");
+                    }
+                    MeterReading reading = objectMapper.readValue(parser, MeterReading.class);
+                    if (meterId != null) {
+                        add(meterId, reading, sink);
+                    } else {
+                        if (early == null) {
+                            early = new ArrayList<>();
+                        }
+                        early.add(reading);
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (meterId == null && !stopped) {
+            throw new JsonParseException(parser, "Ingest request without meterId");
+        }
+    }
+
+    private void add(String meterId, MeterReading reading, Predicate<List<MeterCacheService.IngestRequest>> sink) {
+        chunk.computeIfAbsent(meterId, k -> new ArrayList<>()).add(reading);
+        if (++chunkCount >= chunkSize) {
+            flush(sink);
+        }
+    }
+
+    private void flush(Predicate<List<MeterCacheService.IngestRequest>> sink) {
+        if (chunkCount == 0 || stopped) {
+            return;
+        }
+        List<MeterCacheService.IngestRequest> requests = new ArrayList<>(chunk.size());
+        for (Map.Entry<String, List<MeterReading>> entry : chunk.entrySet()) {
+            MeterCacheService.IngestRequest request = new MeterCacheService.IngestRequest();
+            request.setMeterId(entry.getKey());
+            request.setReadings(entry.getValue());
+            requests.add(request);
+        }
+        if (sink.test(requests)) {
+            acceptedCount += chunkCount;
+        } else {
+            stopped = true;
+        }
+        chunk.clear();
+        chunkCount = 0;
+    }
+}
@@ -1,19 +1,49 @@
 package org.e4s.server.service;
 
+import com.hazelcast.core.DistributedObject;
+import com.hazelcast.core.DistributedObjectEvent;
+import com.hazelcast.core.DistributedObjectListener;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.partition.PartitionService;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
 import org.e4s.model.MeterBucket;
 import org.e4s.model.MeterDayKey;
 import org.e4s.model.MeterReading;
 import org.e4s.server.config.HazelcastConfig;
+import org.e4s.server.processor.AggregateRangeProcessor;
+import org.e4s.server.processor.AggregationPartial;
+import org.e4s.server.processor.AggregationSeries;
+import org.e4s.server.processor.BatchIngestProcessor;
+import org.e4s.server.processor.EvictionProcessor;
+import org.e4s.server.processor.FleetPowerAggregator;
+import org.e4s.server.processor.IngestReadingsProcessor;
+import org.e4s.server.store.OffHeapBucketStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.time.LocalDate;
-import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 /**
  * Core service for managing meter data in the Hazelcast cache.
@@ -29,184 +59,867 @@ import java.util.List;
  * <h2>Data Model</h2>
  * Data is organized as daily buckets:
  * <ul>
- *   <li>Key format: "meterId:YYYY-MM-DD" (e.g., "MTR-001:2026-02-18")</li>
+ *   <li>Key: {@link MeterDayKey} (meter ordinal + epoch day), stored in a compact binary form</li>
  *   <li>Value: {@link MeterBucket} containing all readings for that day</li>
  *   <li>Typical: 96 readings/day (15-minute intervals)</li>
  * </ul>
  * 
+ * <h2>Meter Ordinals</h2>
+ * Keys and buckets identify meters by the int ordinal the {@link MeterRegistry} assigns to each
+ * meter id. This service is the boundary: its methods take and return meter id strings,
+ * registering new ids on ingest and resolving them without registering on queries, so a query
+ * for an unknown meter returns an empty result.
+ * 
+ * <h2>Partitioning</h2>
+ * {@link MeterDayKey} is partitioned by its meter ordinal, so all buckets of a meter share one
+ * partition (in every shard map). Per-meter work spanning many days — a range query, an
+ * aggregation, a multi-day batch for one meter — is sent as a single operation to that
+ * partition's owner and runs there without further hops.
+ * 
+ * <h2>Day Shards</h2>
+ * By default all buckets share the {@value HazelcastConfig#METER_DATA_MAP} map. With
+ * {@code e4s.storage.days-per-shard} set to N &gt; 0, the buckets of each run of N UTC days
+ * (aligned to the epoch) live in their own map, named by {@link HazelcastConfig#shardMapName}.
+ * Keys are unchanged and every operation routes by the day in the key, so callers see the same
+ * API; range and fleet queries visit only the shards their days fall in. Retention then drops
+ * whole shards with {@link IMap#destroy()} instead of scanning entries.
+ * 
+ * <h2>Fixed Slots</h2>
+ * With {@code e4s.storage.slot-seconds} set to S &gt; 0, each UTC day is divided into slots of
+ * S seconds (900 gives 96 slots for 15-minute data) and a bucket holds at most one reading per
+ * slot: replayed readings are ignored, a changed reading replaces the slot's value, and late
+ * readings are inserted in order ({@link MeterBucket#upsertReadings}). Buckets stay sorted and
+ * free of duplicates, so range queries never sort. With 0 (the default) readings are appended
+ * as they arrive.
+ * 
+ * <h2>Off-Heap Storage</h2>
+ * With {@code e4s.storage.engine: off-heap} the buckets are kept in an {@link OffHeapBucketStore}
+ * on this member instead of the Hazelcast maps: encoded records in direct memory behind a
+ * primitive index, so a large cache does not grow the heap the collector has to trace. The same
+ * processors run against the decoded bucket in this JVM, so ingest, fixed slots, queries and
+ * aggregations behave as with maps. The store is neither partitioned nor backed up, which
+ * suits the single-node deployment; day shards do not apply, and retention applies the same
+ * age and idle rule as the maps to the write times kept in the record headers, then compacts
+ * the arenas.
+ * 
  * <h2>Thread Safety</h2>
- * Uses Hazelcast's {@link IMap#compute} for atomic updates. The service is thread-safe
- * and can handle concurrent ingestion from multiple sources.
+ * Writes go through {@link IngestReadingsProcessor}, which runs on the partition owner and
+ * appends readings while holding the key's partition thread, so updates are atomic without
+ * shipping the bucket to the caller. The service is thread-safe and can handle concurrent
+ * ingestion from multiple sources. Batch paths group readings by {@link MeterDayKey} first,
+ * so each bucket is updated once per batch and each partition receives one operation.
  * 
  * <h2>Performance Characteristics</h2>
- * <ul>
- *   <li>Single ingest: ~50K ops/sec, 156 µs latency</li>
- *   <li>Batch ingest: ~45K ops/sec, 14 ms latency</li>
- *   <li>Range query: ~69K ops/sec, 110 µs latency</li>
- *   <li>Aggregation: ~35K ops/sec, 219 µs latency</li>
- * </ul>
+ * Throughput depends on the storage engine, codec and ingest mode; measure it with
+ * {@code BenchmarkRunner} (see "Benchmark Results" and "Running Benchmarks" in the README).
  */
 @Service
 public class MeterCacheService {
 
-    private final IMap<String, MeterBucket> meterDataMap;
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    private static final String KEY_DAY_ATTRIBUTE = "__key.dayEpochDay";
+
+    private static final String VALUE_ATTRIBUTE = "this";
+
+    private final HazelcastInstance hazelcastInstance;
+    private final MeterRegistry meterRegistry;
+    private final IMap<MeterDayKey, MeterBucket> meterDataMap;
+    private final IMap<MeterDayKey, Long> accessMap;
+    private final PartitionService partitionService;
+    private final int daysPerShard;
+    private final long slotMillis;
+    private final OffHeapBucketStore offHeapStore;
+    private final NavigableMap<Long, IMap<MeterDayKey, MeterBucket>> shards = new ConcurrentSkipListMap<>();
 
     public MeterCacheService(HazelcastInstance hazelcastInstance) {
-        this.meterDataMap = hazelcastInstance.getMap(HazelcastConfig.METER_DATA_MAP);
+        this(hazelcastInstance, 0);
     }
 
-    public void ingestReading(String meterId, MeterReading reading) {
-        LocalDate day = Instant.ofEpochMilli(reading.getReportedTs()).atZone(ZoneOffset.UTC).toLocalDate();
-        String key = MeterDayKey.of(meterId, day).toKeyString();
+    public MeterCacheService(HazelcastInstance hazelcastInstance, int daysPerShard) {
+        this(hazelcastInstance, new MeterRegistry(hazelcastInstance), daysPerShard);
+    }
+
+    public MeterCacheService(HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry, int daysPerShard) {
+        this(hazelcastInstance, meterRegistry, daysPerShard, 0);
+    }
+
+    public MeterCacheService(HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry, int daysPerShard,
+                             int slotSeconds) {
+        this(hazelcastInstance, meterRegistry, daysPerShard, slotSeconds, null);
+    }
 
-        meterDataMap.compute(key, (k, bucket) -> {
-            if (bucket == null) {
-                bucket = new MeterBucket(meterId, day.toEpochDay());
+    /**
+     * @param daysPerShard UTC days per shard map; 0 keeps every bucket in one map
+     * @param slotSeconds fixed slot length of buckets; must divide a day, 0 appends readings
+     * @param offHeapStore store holding the buckets instead of the maps; {@code null} uses the maps
+     */
+    @Autowired
+    public MeterCacheService(HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry,
+                             @Value("${e4s.storage.days-per-shard:0}") int daysPerShard,
+                             @Value("${e4s.storage.slot-seconds:0}") int slotSeconds,
+                             @Nullable OffHeapBucketStore offHeapStore) {
+        if (daysPerShard < 0) {
+            throw new IllegalArgumentException("days-per-shard must not be negative: " + daysPerShard);
+        }
+        if (slotSeconds < 0 || slotSeconds > 0 && MILLIS_PER_DAY % (slotSeconds * 1000L) != 0) {
+            throw new IllegalArgumentException("slot-seconds must be 0 or divide a day: " + slotSeconds);
+        }
+        if (offHeapStore != null && daysPerShard > 0) {
+            throw new IllegalArgumentException("days-per-shard does not apply to the off-heap store");
+        }
+        this.hazelcastInstance = hazelcastInstance;
+        this.meterRegistry = meterRegistry;
+        this.daysPerShard = daysPerShard;
+        this.slotMillis = slotSeconds * 1000L;
+        this.offHeapStore = offHeapStore;
+        this.meterDataMap = daysPerShard == 0 ? hazelcastInstance.getMap(HazelcastConfig.METER_DATA_MAP) : null;
+        this.accessMap = daysPerShard == 0 && offHeapStore == null
+                ? hazelcastInstance.getMap(HazelcastConfig.METER_ACCESS_MAP) : null;
+        this.partitionService = hazelcastInstance.getPartitionService();
+        if (daysPerShard == 0) {
+            shards.put(0L, meterDataMap);
+        } else {
+            hazelcastInstance.addDistributedObjectListener(new ShardListener());
+            for (DistributedObject object : hazelcastInstance.getDistributedObjects()) {
+                if (object instanceof IMap) {
+                    shardCreated(object.getName());
+                }
             }
-            bucket.addReading(reading);
-            return bucket;
-        });
+        }
+    }
+
+    public void ingestReading(String meterId, MeterReading reading) {
+        int meterOrdinal = meterRegistry.register(meterId);
+        long epochDay = Math.floorDiv(reading.getReportedTs(), MILLIS_PER_DAY);
+        MeterDayKey dayKey = new MeterDayKey(meterOrdinal, epochDay);
+        IngestReadingsProcessor processor = new IngestReadingsProcessor(meterOrdinal, epochDay, List.of(reading),
+                slotMillis);
+
+        if (offHeapStore != null) {
+            ingestOffHeap(dayKey, processor);
+            return;
+        }
+        mapFor(epochDay).executeOnKey(dayKey, processor);
     }
 
     public void ingestReadings(String meterId, List<MeterReading> readings) {
-        readings.forEach(reading -> ingestReading(meterId, reading));
+        Map<MeterDayKey, List<MeterReading>> readingsByDay = new LinkedHashMap<>();
+        groupByDay(meterRegistry.register(meterId), readings, readingsByDay);
+        ingestGrouped(readingsByDay);
     }
 
     public void ingestBatch(List<IngestRequest> requests) {
-        requests.forEach(req -> ingestReadings(req.getMeterId(), req.getReadings()));
+        Map<MeterDayKey, List<MeterReading>> readingsByDay = new LinkedHashMap<>();
+        for (IngestRequest request : requests) {
+            groupByDay(meterRegistry.register(request.getMeterId()), request.getReadings(), readingsByDay);
+        }
+        ingestGrouped(readingsByDay);
+    }
+
+    /**
+     * Ordinal of {@code meterId} in the {@link MeterRegistry}, registering it if new; for callers
+     * that group readings themselves before {@link #ingestGrouped}.
+     */
+    public int registerMeter(String meterId) {
+        return meterRegistry.register(meterId);
+    }
+
+    static void groupByDay(int meterOrdinal, List<MeterReading> readings,
+                                   Map<MeterDayKey, List<MeterReading>> readingsByDay) {
+        for (MeterReading reading : readings) {
+            long epochDay = Math.floorDiv(reading.getReportedTs(), MILLIS_PER_DAY);
+            readingsByDay.computeIfAbsent(new MeterDayKey(meterOrdinal, epochDay), k -> new ArrayList<>()).add(reading);
+        }
+    }
+
+    /**
+     * Applies each meter-day group as one atomic bucket update. Groups are partitioned by owner
+     * (and by shard map) so every partition receives a single {@link BatchIngestProcessor} carrying
+     * only its keys; partitions are updated in parallel and the call returns once all of them have
+     * completed.
+     */
+    public void ingestGrouped(Map<MeterDayKey, List<MeterReading>> readingsByDay) {
+        if (readingsByDay.isEmpty()) {
+            return;
+        }
+        if (offHeapStore != null) {
+            for (Map.Entry<MeterDayKey, List<MeterReading>> group : readingsByDay.entrySet()) {
+                MeterDayKey dayKey = group.getKey();
+                ingestOffHeap(dayKey, new IngestReadingsProcessor(dayKey.getMeterOrdinal(), dayKey.getDayEpochDay(),
+                        group.getValue(), slotMillis));
+            }
+            return;
+        }
+        if (readingsByDay.size() == 1) {
+            Map.Entry<MeterDayKey, List<MeterReading>> group = readingsByDay.entrySet().iterator().next();
+            MeterDayKey dayKey = group.getKey();
+            mapFor(dayKey.getDayEpochDay()).executeOnKey(dayKey,
+                    new IngestReadingsProcessor(dayKey.getMeterOrdinal(), dayKey.getDayEpochDay(), group.getValue(),
+                            slotMillis));
+            return;
+        }
+
+        Map<Long, Map<Integer, Map<MeterDayKey, IngestReadingsProcessor>>> processorsByShard = new HashMap<>();
+        for (Map.Entry<MeterDayKey, List<MeterReading>> group : readingsByDay.entrySet()) {
+            MeterDayKey dayKey = group.getKey();
+            int partitionId = partitionService.getPartition(dayKey).getPartitionId();
+            processorsByShard.computeIfAbsent(shardOf(dayKey.getDayEpochDay()), s -> new HashMap<>())
+                    .computeIfAbsent(partitionId, p -> new HashMap<>())
+                    .put(dayKey, new IngestReadingsProcessor(dayKey.getMeterOrdinal(), dayKey.getDayEpochDay(),
+                            group.getValue(), slotMillis));
+        }
+
+        List<CompletableFuture<Map<MeterDayKey, Integer>>> futures = new ArrayList<>();
+        for (Map.Entry<Long, Map<Integer, Map<MeterDayKey, IngestReadingsProcessor>>> shard : processorsByShard.entrySet()) {
+            IMap<MeterDayKey, MeterBucket> map = shardMap(shard.getKey());
+            for (Map<MeterDayKey, IngestReadingsProcessor> processors : shard.getValue().values()) {
+                futures.add(map.submitToKeys(processors.keySet(), new BatchIngestProcessor(processors))
+                        .toCompletableFuture());
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    /**
+     * Runs {@code processor} on the off-heap bucket of {@code dayKey}, as the partition owner would.
+     */
+    private void ingestOffHeap(MeterDayKey dayKey, IngestReadingsProcessor processor) {
+        offHeapStore.update(dayKey.getMeterOrdinal(), dayKey.getDayEpochDay(), bucket -> {
+            Map.Entry<MeterDayKey, MeterBucket> entry = new AbstractMap.SimpleEntry<>(dayKey, bucket);
+            processor.process(entry);
+            return entry.getValue();
+        });
     }
 
+    /**
+     * Returns the readings of {@code meterId} in {@code [start, end]}, ordered by timestamp.
+     * 
+     * <p>Buckets are fetched in one {@link IMap#getAll} per shard map, which reaches only the
+     * meter's partition, and visited in day order. Buckets never
+     * overlap (each holds one UTC day), so merging them is a concatenation; within a bucket the
+     * range is located by binary search when its timestamps are already in order, and only a
+     * bucket written out of order is sorted, on its own slice of the result (never with fixed
+     * slots). Buckets whose
+     * stored time span misses the range are skipped without decoding their columns.
+     */
     public List<MeterReading> queryRange(String meterId, Instant start, Instant end) {
         List<MeterReading> result = new ArrayList<>();
-        LocalDate startDay = start.atZone(ZoneOffset.UTC).toLocalDate();
-        LocalDate endDay = end.atZone(ZoneOffset.UTC).toLocalDate();
-
-        LocalDate currentDay = startDay;
-        while (!currentDay.isAfter(endDay)) {
-            String key = MeterDayKey.of(meterId, currentDay).toKeyString();
-            MeterBucket bucket = meterDataMap.get(key);
-            if (bucket != null) {
-                long startTs = start.toEpochMilli();
-                long endTs = end.toEpochMilli();
-                MeterReading[] readings = bucket.getReadings();
-                for (int i = 0; i < bucket.getReadingCount(); i++) {
-                    MeterReading r = readings[i];
-                    if (r.getReportedTs() >= startTs && r.getReportedTs() <= endTs) {
-                        result.add(r);
+        long startTs = start.toEpochMilli();
+        long endTs = end.toEpochMilli();
+
+        for (MeterBucket bucket : fetchBuckets(meterId, start, end)) {
+            if (!bucket.overlaps(startTs, endTs)) {
+                continue;
+            }
+            long[] timestamps = bucket.getTimestamps();
+            int count = bucket.getReadingCount();
+            if (isSorted(timestamps, count)) {
+                int to = firstAfter(timestamps, count, endTs);
+                for (int i = firstAfter(timestamps, count, startTs - 1); i < to; i++) {
+                    result.add(bucket.getReading(i));
+                }
+            } else {
+                int mark = result.size();
+                for (int i = 0; i < count; i++) {
+                    long ts = timestamps[i];
+                    if (ts >= startTs && ts <= endTs) {
+                        result.add(bucket.getReading(i));
                     }
                 }
+                result.subList(mark, result.size()).sort(Comparator.comparingLong(MeterReading::getReportedTs));
             }
-            currentDay = currentDay.plusDays(1);
         }
 
-        result.sort(Comparator.comparingLong(MeterReading::getReportedTs));
         return result;
     }
 
+    private static boolean isSorted(long[] timestamps, int count) {
+        for (int i = 1; i < count; i++) {
+            if (timestamps[i] < timestamps[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Index of the first timestamp greater than {@code ts} in a sorted column.
+     */
+    private static int firstAfter(long[] timestamps, int count, long ts) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[mid] <= ts) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Aggregates power over {@code [start, end]} on the member owning the meter. The keys of each
+     * shard map go out in one {@code submitToKeys}, a single partition operation since all days of
+     * the meter share a partition. Each bucket returns one {@link AggregationPartial} per {@code interval} it covers; the
+     * partials are merged here into the series and the overall value, so no reading crosses
+     * the network.
+     */
     public AggregationResult queryAggregation(String meterId, Instant start, Instant end,
                                                AggregationType type, Interval interval) {
-        List<MeterReading> readings = queryRange(meterId, start, end);
+        AggregationPartial total = new AggregationPartial();
+        TreeMap<Long, AggregationPartial> byInterval = new TreeMap<>();
+        AggregateRangeProcessor processor = new AggregateRangeProcessor(start.toEpochMilli(), end.toEpochMilli(),
+                interval.getMillis(), interval.getOffsetMillis());
+        List<AggregationSeries> bucketSeries = new ArrayList<>();
+        int meterOrdinal = meterRegistry.find(meterId);
+        Map<Long, List<MeterDayKey>> keysByShard = meterOrdinal != MeterRegistry.UNKNOWN
+                ? dayKeysByShard(meterOrdinal, start, end) : Map.of();
+        List<MeterDayKey> read = new ArrayList<>();
+        if (offHeapStore != null) {
+            for (List<MeterDayKey> keys : keysByShard.values()) {
+                for (MeterDayKey key : keys) {
+                    MeterBucket bucket = offHeapStore.get(key.getMeterOrdinal(), key.getDayEpochDay());
+                    if (bucket != null) {
+                        bucketSeries.add(processor.process(new AbstractMap.SimpleEntry<>(key, bucket)));
+                        read.add(key);
+                    }
+                }
+            }
+        } else {
+            List<CompletableFuture<Map<MeterDayKey, AggregationSeries>>> futures = new ArrayList<>();
+            Map<Long, IMap<MeterDayKey, MeterBucket>> existing = shardMaps();
+            for (Map.Entry<Long, List<MeterDayKey>> shard : keysByShard.entrySet()) {
+                IMap<MeterDayKey, MeterBucket> map = existing.get(shard.getKey());
+                if (map != null) {
+                    futures.add(map.submitToKeys(new HashSet<>(shard.getValue()), processor).toCompletableFuture());
+                }
+            }
+            for (CompletableFuture<Map<MeterDayKey, AggregationSeries>> future : futures) {
+                Map<MeterDayKey, AggregationSeries> results = future.join();
+                bucketSeries.addAll(results.values());
+                read.addAll(results.keySet());
+            }
+        }
+        recordReads(read);
+        for (AggregationSeries series : bucketSeries) {
+            if (series != null) {
+                series.forEach((intervalStart, partial) -> {
+                    byInterval.computeIfAbsent(intervalStart, k -> new AggregationPartial()).merge(partial);
+                    total.merge(partial);
+                });
+            }
+        }
 
         AggregationResult result = new AggregationResult();
         result.setMeterId(meterId);
         result.setAggregationType(type);
         result.setInterval(interval);
 
-        if (readings.isEmpty()) {
+        List<IntervalValue> series = new ArrayList<>(byInterval.size());
+        for (Map.Entry<Long, AggregationPartial> entry : byInterval.entrySet()) {
+            AggregationPartial partial = entry.getValue();
+            series.add(new IntervalValue(Instant.ofEpochMilli(entry.getKey()),
+                    valueOf(type, partial), (int) partial.getCount()));
+        }
+        result.setSeries(series);
+
+        if (total.getCount() == 0) {
             return result;
         }
+        result.setValue(valueOf(type, total));
+        result.setCount((int) total.getCount());
+
+        return result;
+    }
+
+    private static double valueOf(AggregationType type, AggregationPartial partial) {
+        return switch (type) {
+            case AVG -> partial.getSum() / partial.getCount();
+            case SUM -> partial.getSum();
+            case MIN -> partial.getMin();
+            case MAX -> partial.getMax();
+            case COUNT -> partial.getCount();
+        };
+    }
 
-        switch (type) {
-            case AVG -> {
-                double sum = 0;
-                for (MeterReading r : readings) {
-                    sum += r.getPower();
+    /**
+     * Aggregates power over {@code [start, end]} across many meters with one {@link IMap#aggregate}.
+     * The predicate selects the buckets of the covered days, and of {@code meterIds} if given,
+     * on every member in parallel; each member returns one {@link AggregationPartial}, so no
+     * bucket leaves its owner. With day shards, only the shards covering the days are aggregated.
+     *
+     * @param meterIds meters to include; {@code null} or empty selects every meter
+     */
+    public FleetAggregationResult queryFleetAggregation(Collection<String> meterIds, Instant start, Instant end,
+                                                        AggregationType type) {
+        long startDay = Math.floorDiv(start.toEpochMilli(), MILLIS_PER_DAY);
+        long endDay = Math.floorDiv(end.toEpochMilli(), MILLIS_PER_DAY);
+        Predicate<MeterDayKey, MeterBucket> predicate = Predicates.between(HazelcastConfig.BUCKET_DAY_ATTRIBUTE, startDay, endDay);
+        boolean anyKnown = true;
+        Set<Integer> ordinals = null;
+        if (meterIds != null && !meterIds.isEmpty()) {
+            ordinals = new LinkedHashSet<>(meterIds.size());
+            for (String meterId : meterIds) {
+                int ordinal = meterRegistry.find(meterId);
+                if (ordinal != MeterRegistry.UNKNOWN) {
+                    ordinals.add(ordinal);
                 }
-                result.setValue(sum / readings.size());
-                result.setCount(readings.size());
             }
-            case SUM -> {
-                double sum = 0;
-                for (MeterReading r : readings) {
-                    sum += r.getPower();
+            anyKnown = !ordinals.isEmpty();
+            predicate = Predicates.and(
+                    Predicates.in(HazelcastConfig.METER_ORDINAL_ATTRIBUTE, ordinals.toArray(new Integer[0])), predicate);
+        }
+        AggregationPartial total = new AggregationPartial();
+        if (offHeapStore != null) {
+            FleetPowerAggregator aggregator = new FleetPowerAggregator(start.toEpochMilli(), end.toEpochMilli());
+            for (MeterDayKey key : offHeapStore.keysBetween(startDay, endDay)) {
+                if (ordinals == null || ordinals.contains(key.getMeterOrdinal())) {
+                    MeterBucket bucket = offHeapStore.get(key.getMeterOrdinal(), key.getDayEpochDay());
+                    if (bucket != null) {
+                        aggregator.accumulate(new AbstractMap.SimpleEntry<>(key, bucket));
+                    }
                 }
-                result.setValue(sum);
-                result.setCount(readings.size());
             }
-            case MIN -> {
-                double min = Double.MAX_VALUE;
-                for (MeterReading r : readings) {
-                    if (r.getPower() < min) {
-                        min = r.getPower();
+            total.merge(aggregator.aggregate());
+        }
+        Collection<IMap<MeterDayKey, MeterBucket>> maps = anyKnown && offHeapStore == null
+                ? shardMapsBetween(startDay, endDay).values() : List.of();
+        for (IMap<MeterDayKey, MeterBucket> map : maps) {
+            AggregationPartial partial = map.aggregate(
+                    new FleetPowerAggregator(start.toEpochMilli(), end.toEpochMilli()), predicate);
+            if (partial != null) {
+                total.merge(partial);
+            }
+        }
+
+        FleetAggregationResult result = new FleetAggregationResult();
+        result.setMeterCount(ordinals != null ? ordinals.size() : 0);
+        result.setAggregationType(type);
+        result.setStart(start);
+        result.setEnd(end);
+        if (total.getCount() > 0) {
+            result.setValue(valueOf(type, total));
+            result.setCount(total.getCount());
+        }
+        return result;
+    }
+
+    /**
+     * Fetches the buckets covering {@code [start, end]} in day order. The keys of each shard map
+     * are requested in one {@link IMap#getAll}, answered by the meter's partition alone.
+     */
+    private List<MeterBucket> fetchBuckets(String meterId, Instant start, Instant end) {
+        int meterOrdinal = meterRegistry.find(meterId);
+        if (meterOrdinal == MeterRegistry.UNKNOWN) {
+            return List.of();
+        }
+        List<MeterBucket> buckets = new ArrayList<>();
+        Map<Long, IMap<MeterDayKey, MeterBucket>> existing = offHeapStore == null ? shardMaps() : Map.of();
+        for (Map.Entry<Long, List<MeterDayKey>> shard : dayKeysByShard(meterOrdinal, start, end).entrySet()) {
+            if (offHeapStore != null) {
+                for (MeterDayKey key : shard.getValue()) {
+                    MeterBucket bucket = offHeapStore.get(key.getMeterOrdinal(), key.getDayEpochDay());
+                    if (bucket != null) {
+                        buckets.add(bucket);
                     }
                 }
-                result.setValue(min);
-                result.setCount(readings.size());
+                continue;
             }
-            case MAX -> {
-                double max = Double.MIN_VALUE;
-                for (MeterReading r : readings) {
-                    if (r.getPower() > max) {
-                        max = r.getPower();
-                    }
+            IMap<MeterDayKey, MeterBucket> map = existing.get(shard.getKey());
+            if (map == null) {
+                continue;
+            }
+            List<MeterDayKey> keys = shard.getValue();
+            if (keys.size() == 1) {
+                MeterBucket bucket = map.get(keys.get(0));
+                if (bucket != null) {
+                    buckets.add(bucket);
                 }
-                result.setValue(max);
-                result.setCount(readings.size());
+                continue;
             }
-            case COUNT -> {
-                result.setValue((double) readings.size());
-                result.setCount(readings.size());
+
+            Map<MeterDayKey, MeterBucket> found = map.getAll(new HashSet<>(keys));
+            for (MeterDayKey key : keys) {
+                MeterBucket bucket = found.get(key);
+                if (bucket != null) {
+                    buckets.add(bucket);
+                }
             }
         }
+        List<MeterDayKey> read = new ArrayList<>(buckets.size());
+        for (MeterBucket bucket : buckets) {
+            read.add(new MeterDayKey(bucket.getMeterOrdinal(), bucket.getBucketDateEpochDay()));
+        }
+        recordReads(read);
+        return buckets;
+    }
 
-        return result;
+    /**
+     * Records a read of {@code keys} for the idle check of retention, without touching the
+     * buckets. All keys of one meter share a partition, so this is one asynchronous
+     * {@code putAll} that the query does not wait for. Not needed with day shards, whose
+     * retention ignores idleness.
+     */
+    private void recordReads(List<MeterDayKey> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (offHeapStore != null) {
+            for (MeterDayKey key : keys) {
+                offHeapStore.markRead(key.getMeterOrdinal(), key.getDayEpochDay(), now);
+            }
+        } else if (accessMap != null) {
+            Map<MeterDayKey, Long> times = new HashMap<>();
+            for (MeterDayKey key : keys) {
+                times.put(key, now);
+            }
+            accessMap.putAllAsync(times);
+        }
+    }
+
+    /**
+     * Keys of {@code meterOrdinal} for every day of {@code [start, end]}, grouped by shard, both in day order.
+     */
+    private Map<Long, List<MeterDayKey>> dayKeysByShard(int meterOrdinal, Instant start, Instant end) {
+        long startDay = Math.floorDiv(start.toEpochMilli(), MILLIS_PER_DAY);
+        long endDay = Math.floorDiv(end.toEpochMilli(), MILLIS_PER_DAY);
+
+        Map<Long, List<MeterDayKey>> keys = new LinkedHashMap<>();
+        for (long day = startDay; day <= endDay; day++) {
+            keys.computeIfAbsent(shardOf(day), s -> new ArrayList<>()).add(new MeterDayKey(meterOrdinal, day));
+        }
+        return keys;
+    }
+
+    /**
+     * First epoch day of the shard holding {@code epochDay}; always 0 without day shards.
+     */
+    private long shardOf(long epochDay) {
+        return daysPerShard == 0 ? 0 : Math.floorDiv(epochDay, daysPerShard) * daysPerShard;
+    }
+
+    /**
+     * Existing bucket maps covering {@code [startDay, endDay]}, in day order. Read paths use this
+     * instead of {@link #shardMap} so that a query never creates a shard, or re-creates one
+     * destroyed by eviction.
+     */
+    private NavigableMap<Long, IMap<MeterDayKey, MeterBucket>> shardMapsBetween(long startDay, long endDay) {
+        if (daysPerShard == 0) {
+            return shards;
+        }
+        long firstShard = shardOf(startDay);
+        return firstShard > endDay ? new TreeMap<>() : shards.subMap(firstShard, true, endDay, true);
+    }
+
+    /**
+     * Bucket map of {@code shard}, created if needed; write paths only.
+     */
+    private IMap<MeterDayKey, MeterBucket> shardMap(long shard) {
+        return daysPerShard == 0 ? meterDataMap
+                : shards.computeIfAbsent(shard, s -> hazelcastInstance.getMap(HazelcastConfig.shardMapName(s)));
+    }
+
+    private IMap<MeterDayKey, MeterBucket> mapFor(long epochDay) {
+        return shardMap(shardOf(epochDay));
+    }
+
+    /**
+     * Every bucket map in the cluster keyed by first epoch day, in day order; a live view.
+     *
+     * <p>Shards are tracked rather than listed: the cluster's distributed objects are scanned once
+     * at construction, and a {@link DistributedObjectListener} then adds shards created and drops
+     * shards destroyed by any member. This member's own writes and evictions update the view
+     * directly, so they are visible at once; another member's shard shows up when its event
+     * arrives. Maps whose name is not exactly {@link HazelcastConfig#shardMapName} of a day are
+     * ignored.
+     */
+    private NavigableMap<Long, IMap<MeterDayKey, MeterBucket>> shardMaps() {
+        return shards;
+    }
+
+    private void shardCreated(String name) {
+        Long shard = shardOfName(name);
+        if (shard != null) {
+            shards.computeIfAbsent(shard, s -> hazelcastInstance.getMap(name));
+        }
+    }
+
+    private void shardDestroyed(String name) {
+        Long shard = shardOfName(name);
+        if (shard != null) {
+            shards.remove(shard);
+        }
+    }
+
+    /**
+     * First epoch day of the shard map named {@code name}, or {@code null} for any other name.
+     */
+    private static Long shardOfName(String name) {
+        if (!name.startsWith(HazelcastConfig.METER_DATA_SHARD_PREFIX)) {
+            return null;
+        }
+        long shard;
+        try {
+            shard = LocalDate.parse(name.substring(HazelcastConfig.METER_DATA_SHARD_PREFIX.length())).toEpochDay();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+        return name.equals(HazelcastConfig.shardMapName(shard)) ? shard : null;
+    }
+
+    /**
+     * Cold-start load: builds complete buckets off-map and writes them without read-modify-write.
+     * 
+     * <p>Readings are grouped by meter-day and sorted by timestamp, each bucket is allocated with
+     * its exact capacity (with fixed slots, one row per slot), and buckets are written with one
+     * {@code putAllAsync} per partition (per shard map).
+     * Existing buckets for the loaded keys are <b>replaced</b>, so all readings of a meter-day must
+     * arrive in the same call; use the ingest paths to append to live buckets.
+     *
+     * @return number of buckets written
+     */
+    public int bulkLoad(List<IngestRequest> requests) {
+        Map<MeterDayKey, List<MeterReading>> readingsByDay = new HashMap<>();
+        for (IngestRequest request : requests) {
+            groupByDay(meterRegistry.register(request.getMeterId()), request.getReadings(), readingsByDay);
+        }
+        long now = System.currentTimeMillis();
+
+        Map<Long, Map<Integer, Map<MeterDayKey, MeterBucket>>> bucketsByShard = new HashMap<>();
+        for (Map.Entry<MeterDayKey, List<MeterReading>> group : readingsByDay.entrySet()) {
+            MeterDayKey dayKey = group.getKey();
+            List<MeterReading> readings = group.getValue();
+            readings.sort(Comparator.comparingLong(MeterReading::getReportedTs));
+
+            int count = readings.size();
+            long[] timestamps = new long[count];
+            double[] voltages = new double[count];
+            double[] currents = new double[count];
+            double[] powers = new double[count];
+            for (int i = 0; i < count; i++) {
+                MeterReading reading = readings.get(i);
+                timestamps[i] = reading.getReportedTs();
+                voltages[i] = reading.getVoltage();
+                currents[i] = reading.getCurrent();
+                powers[i] = reading.getPower();
+            }
+            MeterBucket bucket;
+            if (slotMillis > 0) {
+                bucket = new MeterBucket(dayKey.getMeterOrdinal(), dayKey.getDayEpochDay(), count);
+                bucket.upsertReadings(timestamps, voltages, currents, powers, count, slotMillis);
+                bucket.trimToSize();
+            } else {
+                bucket = new MeterBucket(dayKey.getMeterOrdinal(), dayKey.getDayEpochDay());
+                bucket.setColumns(timestamps, voltages, currents, powers, count);
+            }
+            bucket.markWritten(now);
+
+            if (offHeapStore != null) {
+                MeterBucket loaded = bucket;
+                offHeapStore.update(dayKey.getMeterOrdinal(), dayKey.getDayEpochDay(), existing -> loaded);
+                continue;
+            }
+            int partitionId = partitionService.getPartition(dayKey).getPartitionId();
+            bucketsByShard.computeIfAbsent(shardOf(dayKey.getDayEpochDay()), s -> new HashMap<>())
+                    .computeIfAbsent(partitionId, p -> new HashMap<>()).put(dayKey, bucket);
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (Map.Entry<Long, Map<Integer, Map<MeterDayKey, MeterBucket>>> shard : bucketsByShard.entrySet()) {
+            IMap<MeterDayKey, MeterBucket> map = shardMap(shard.getKey());
+            for (Map<MeterDayKey, MeterBucket> buckets : shard.getValue().values()) {
+                futures.add(map.putAllAsync(buckets).toCompletableFuture());
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        return readingsByDay.size();
+    }
+
+    /**
+     * Hazelcast partition that owns every bucket of the given meter (registering it if new), used
+     * to route work so that one thread handles all writes of a meter.
+     */
+    public int getPartitionId(String meterId) {
+        return partitionService.getPartition(meterRegistry.register(meterId)).getPartitionId();
     }
 
     public long getBucketCount() {
-        return meterDataMap.size();
+        if (offHeapStore != null) {
+            return offHeapStore.size();
+        }
+        long count = 0;
+        for (IMap<MeterDayKey, MeterBucket> map : shardMaps().values()) {
+            count += map.size();
+        }
+        return count;
     }
 
     public long getMemoryUsageBytes() {
-        return meterDataMap.getLocalMapStats().getOwnedEntryMemoryCost();
+        if (offHeapStore != null) {
+            return offHeapStore.getLiveBytes();
+        }
+        long bytes = 0;
+        for (IMap<MeterDayKey, MeterBucket> map : shardMaps().values()) {
+            bytes += map.getLocalMapStats().getOwnedEntryMemoryCost();
+        }
+        return bytes;
     }
 
+    /**
+     * Cluster-wide entry count and this member's local statistics, summed over all shard maps.
+     * For the off-heap store, owned memory is the live record bytes and heap cost the index.
+     */
     public CacheStats getCacheStats() {
-        var stats = meterDataMap.getLocalMapStats();
-        return new CacheStats(
-                meterDataMap.size(),
-                stats.getOwnedEntryCount(),
-                stats.getOwnedEntryMemoryCost(),
-                stats.getHeapCost(),
-                stats.getPutOperationCount(),
-                stats.getGetOperationCount()
-        );
+        if (offHeapStore != null) {
+            long entries = offHeapStore.size();
+            return new CacheStats(entries, entries, offHeapStore.getLiveBytes(), offHeapStore.getIndexHeapBytes(),
+                    offHeapStore.getPutCount(), offHeapStore.getGetCount());
+        }
+        long totalEntries = 0;
+        long ownedEntries = 0;
+        long ownedMemory = 0;
+        long heapCost = 0;
+        long puts = 0;
+        long gets = 0;
+        for (IMap<MeterDayKey, MeterBucket> map : shardMaps().values()) {
+            var stats = map.getLocalMapStats();
+            totalEntries += map.size();
+            ownedEntries += stats.getOwnedEntryCount();
+            ownedMemory += stats.getOwnedEntryMemoryCost();
+            heapCost += stats.getHeapCost();
+            puts += stats.getPutOperationCount();
+            gets += stats.getGetOperationCount();
+        }
+        return new CacheStats(totalEntries, ownedEntries, ownedMemory, heapCost, puts, gets);
     }
 
     public void evictBucket(String meterId, LocalDate day) {
-        String key = MeterDayKey.of(meterId, day).toKeyString();
-        meterDataMap.delete(key);
+        int meterOrdinal = meterRegistry.find(meterId);
+        if (meterOrdinal == MeterRegistry.UNKNOWN) {
+            return;
+        }
+        if (offHeapStore != null) {
+            offHeapStore.remove(meterOrdinal, day.toEpochDay());
+        } else {
+            IMap<MeterDayKey, MeterBucket> map = shardMaps().get(shardOf(day.toEpochDay()));
+            if (map != null) {
+                map.delete(MeterDayKey.of(meterOrdinal, day));
+            }
+            if (accessMap != null) {
+                accessMap.delete(MeterDayKey.of(meterOrdinal, day));
+            }
+        }
     }
 
+    /**
+     * Removes buckets created more than {@code retentionDays} ago and neither written nor read for
+     * {@code idleHours}.
+     * 
+     * <p>Creation and last write times are kept in the bucket header and set only by writes. Reads
+     * of a meter's buckets (range queries and per-meter aggregations) are recorded in the
+     * {@value HazelcastConfig#METER_ACCESS_MAP} map instead, so a read never rewrites a bucket.
+     * One {@code executeOnEntries} selects the buckets of days up to the retention cutoff with the
+     * sorted day index (a bucket is never created before its own day), and an
+     * {@link EvictionProcessor} removes those past both thresholds and not recently read in the
+     * same partition operation. No bucket key set is shipped to the caller and no column is
+     * decoded. Fleet aggregations do not count as reads: they visit every bucket in their range.
+     * 
+     * <p>With day shards retention is purely day-based: a shard whose last day ended more than
+     * {@code retentionDays} ago is dropped with {@link IMap#destroy()}, whatever its access times,
+     * and {@code idleHours} is not consulted. The off-heap store applies the same rule as the
+     * maps to the times in its record headers and its read times, then compacts its arenas.
+     */
     public void evictOldBuckets(int retentionDays, int idleHours) {
         long now = System.currentTimeMillis();
         long ageThreshold = (long) retentionDays * 24 * 60 * 60 * 1000;
         long idleThreshold = (long) idleHours * 60 * 60 * 1000;
+        long cutoffDay = Math.floorDiv(now - ageThreshold, MILLIS_PER_DAY);
 
-        List<String> keysToEvict = new ArrayList<>();
+        if (offHeapStore != null) {
+            evictBuckets(cutoffDay, now - ageThreshold, now - idleThreshold);
+            offHeapStore.compact();
+            return;
+        }
+        if (daysPerShard > 0) {
+            List<IMap<MeterDayKey, MeterBucket>> expiredShards =
+                    new ArrayList<>(shardMaps().headMap(cutoffDay - daysPerShard, true).values());
+            for (IMap<MeterDayKey, MeterBucket> expired : expiredShards) {
+                shardDestroyed(expired.getName());
+                expired.destroy();
+            }
+            return;
+        }
+        evictBuckets(cutoffDay, now - ageThreshold, now - idleThreshold);
+    }
 
-        for (String key : meterDataMap.keySet()) {
-            MeterBucket bucket = meterDataMap.get(key);
-            if (bucket != null) {
-                long age = now - bucket.getCreatedTime();
-                long idle = now - bucket.getLastAccessTime();
-                if (age > ageThreshold && idle > idleThreshold) {
-                    keysToEvict.add(key);
-                }
+    /**
+     * Runs {@link EvictionProcessor} on the buckets of days up to {@code lastDay}, or the same
+     * check on the off-heap store, and returns the number of buckets removed.
+     *
+     * <p>The keys of those days read since {@code idleSince} are fetched from the access map
+     * first and shipped with the processor; a read racing with the run itself may be missed.
+     * Access entries older than {@code idleSince} are then dropped, as they can no longer keep
+     * a bucket.
+     */
+    int evictBuckets(long lastDay, long createdBefore, long idleSince) {
+        if (offHeapStore != null) {
+            return offHeapStore.removeExpired(lastDay, createdBefore, idleSince);
+        }
+        Set<MeterDayKey> readSince = new HashSet<>(accessMap.keySet(Predicates.and(
+                Predicates.lessEqual(KEY_DAY_ATTRIBUTE, lastDay),
+                Predicates.greaterEqual(VALUE_ATTRIBUTE, idleSince))));
+        int evicted = meterDataMap.executeOnEntries(new EvictionProcessor(createdBefore, idleSince, readSince),
+                Predicates.lessEqual(HazelcastConfig.BUCKET_DAY_ATTRIBUTE, lastDay)).size();
+        accessMap.removeAll(Predicates.lessThan(VALUE_ATTRIBUTE, idleSince));
+        return evicted;
+    }
+
+    /**
+     * Days held in the cache for {@code meterId}, in order; answered from the meter index.
+     */
+    public List<LocalDate> getBucketDays(String meterId) {
+        List<LocalDate> days = new ArrayList<>();
+        int meterOrdinal = meterRegistry.find(meterId);
+        if (meterOrdinal == MeterRegistry.UNKNOWN) {
+            return days;
+        }
+        if (offHeapStore != null) {
+            for (MeterDayKey key : offHeapStore.keysOf(meterOrdinal)) {
+                days.add(key.getDay());
             }
+            days.sort(Comparator.naturalOrder());
+            return days;
         }
+        for (IMap<MeterDayKey, MeterBucket> map : shardMaps().values()) {
+            for (MeterDayKey key : map.keySet(Predicates.equal(HazelcastConfig.METER_ORDINAL_ATTRIBUTE, meterOrdinal))) {
+                days.add(key.getDay());
+            }
+        }
+        days.sort(Comparator.naturalOrder());
+        return days;
+    }
+
+    /**
+     * Keeps {@link #shards} in step with shard maps created or destroyed anywhere in the cluster.
+     */
+    private final class ShardListener implements DistributedObjectListener {
 
-        for (String key : keysToEvict) {
-            meterDataMap.delete(key);
+        @Override
+        public void distributedObjectCreated(DistributedObjectEvent event) {
+            if (MapService.SERVICE_NAME.equals(event.getServiceName())) {
+                shardCreated(String.valueOf(event.getObjectName()));
+            }
+        }
+
+        @Override
+        public void distributedObjectDestroyed(DistributedObjectEvent event) {
+            if (MapService.SERVICE_NAME.equals(event.getServiceName())) {
+                shardDestroyed(String.valueOf(event.getObjectName()));
+            }
         }
     }
 
@@ -235,8 +948,134 @@ public class MeterCacheService {
         SUM, AVG, MIN, MAX, COUNT
     }
 
+    /**
+     * Aggregation interval. Intervals are aligned in UTC; weeks start on Monday.
+     */
     public enum Interval {
-        HOURLY, DAILY, WEEKLY
+        HOURLY(60L * 60 * 1000, 0),
+        DAILY(MILLIS_PER_DAY, 0),
+        WEEKLY(7 * MILLIS_PER_DAY, 4 * MILLIS_PER_DAY);
+
+        private final long millis;
+        private final long offsetMillis;
+
+        Interval(long millis, long offsetMillis) {
+            this.millis = millis;
+            this.offsetMillis = offsetMillis;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        /**
+         * Distance of the first interval boundary from the epoch (1970-01-05 is a Monday).
+         */
+        public long getOffsetMillis() {
+            return offsetMillis;
+        }
+    }
+
+    public static class IntervalValue {
+        private Instant intervalStart;
+        private Double value;
+        private int count;
+
+        public IntervalValue() {
+        }
+
+        public IntervalValue(Instant intervalStart, Double value, int count) {
+            this.intervalStart = intervalStart;
+            this.value = value;
+            this.count = count;
+        }
+
+        public Instant getIntervalStart() {
+            return intervalStart;
+        }
+
+        public void setIntervalStart(Instant intervalStart) {
+            this.intervalStart = intervalStart;
+        }
+
+        public Double getValue() {
+            return value;
+        }
+
+        public void setValue(Double value) {
+            this.value = value;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+    }
+
+    public static class FleetAggregationResult {
+        private int meterCount;
+        private AggregationType aggregationType;
+        private Instant start;
+        private Instant end;
+        private Double value;
+        private long count;
+
+        /**
+         * @return number of distinct known meters among those requested, 0 for the whole fleet
+         */
+        public int getMeterCount() {
+            return meterCount;
+        }
+
+        public void setMeterCount(int meterCount) {
+            this.meterCount = meterCount;
+        }
+
+        public AggregationType getAggregationType() {
+            return aggregationType;
+        }
+
+        public void setAggregationType(AggregationType aggregationType) {
+            this.aggregationType = aggregationType;
+        }
+
+        public Instant getStart() {
+            return start;
+        }
+
+        public void setStart(Instant start) {
+            this.start = start;
+        }
+
+        public Instant getEnd() {
+            return end;
+        }
+
+        public void setEnd(Instant end) {
+            this.end = end;
+        }
+
+        public Double getValue() {
+            return value;
+        }
+
+        public void setValue(Double value) {
+            this.value = value;
+        }
+
+        /**
+         * @return number of readings aggregated
+         */
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
     }
 
     public static class AggregationResult {
@@ -245,6 +1084,7 @@ public class MeterCacheService {
         private Interval interval;
         private Double value;
         private int count;
+        private List<IntervalValue> series = List.of();
 
         public String getMeterId() {
             return meterId;
@@ -285,6 +1125,17 @@ public class MeterCacheService {
         public void setCount(int count) {
             this.count = count;
         }
+
+        /**
+         * One entry per non-empty interval, in time order.
+         */
+        public List<IntervalValue> getSeries() {
+            return series;
+        }
+
+        public void setSeries(List<IntervalValue> series) {
+            this.series = series;
+        }
     }
 
     public static class CacheStats {
@@ -0,0 +1,133 @@
+package org.e4s.server.service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import org.e4s.server.config.HazelcastConfig;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cluster-wide dictionary assigning each meter id a stable int ordinal.
+ * 
+ * <p>Bucket keys and values hold the 4-byte ordinal instead of the meter id string, which is
+ * kept once per cluster here and translated back only where ids leave the service (REST
+ * responses, the client API). An ordinal, once published in the forward map, is never
+ * reassigned, so each member caches both directions without invalidation.
+ * 
+ * <p>Two maps hold the dictionary: {@value HazelcastConfig#METER_ORDINALS_MAP} (id to
+ * ordinal) and {@value HazelcastConfig#METER_IDS_MAP} (ordinal to id). Allocation uses plain
+ * map operations rather than a CP counter, so it does not depend on the CP subsystem: the
+ * candidate ordinal is the reverse map's size (or this member's last claim, if higher) and is
+ * claimed with {@code putIfAbsent} on the reverse map, moving to the next ordinal on
+ * collision. The id is then claimed with {@code putIfAbsent} on the forward map; when two
+ * members register the same id at once, the loser releases its ordinal and adopts the
+ * winner's. The reverse entry is written before the forward claim, so any ordinal visible in
+ * the forward map can be resolved.
+ * 
+ * <p>Limitation: both claims are only atomic within one connected cluster. During a split
+ * brain each side allocates from its own copy of the maps, so the two sides can give the same
+ * ordinal to different new meters; on merge the map merge policy keeps one reverse entry and
+ * the other meter's ordinal then resolves to the wrong id. Meters registered before the split
+ * are unaffected.
+ * 
+ * <p>Thread-safe.
+ */
+@Service
+public class MeterRegistry {
+
+    /**
+     * Returned by {@link #find} for a meter id that was never registered.
+     */
+    public static final int UNKNOWN = -1;
+
+    private final IMap<String, Integer> ordinalsById;
+    private final IMap<Integer, String> idsByOrdinal;
+    private final AtomicInteger nextCandidate = new AtomicInteger();
+    private final ConcurrentHashMap<String, Integer> ordinalCache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, String> idCache = new ConcurrentHashMap<>();
+
+    public MeterRegistry(HazelcastInstance hazelcastInstance) {
+        this.ordinalsById = hazelcastInstance.getMap(HazelcastConfig.METER_ORDINALS_MAP);
+        this.idsByOrdinal = hazelcastInstance.getMap(HazelcastConfig.METER_IDS_MAP);
+    }
+
+    /**
+     * Ordinal of {@code meterId}, assigning the next free one on first use.
+     */
+    public int register(String meterId) {
+        Integer cached = ordinalCache.get(meterId);
+        if (cached != null) {
+            return cached;
+        }
+        Integer ordinal = ordinalsById.get(meterId);
+        if (ordinal == null) {
+            int candidate = claimOrdinal(meterId);
+            ordinal = ordinalsById.putIfAbsent(meterId, candidate);
+            if (ordinal == null) {
+                ordinal = candidate;
+            } else {
+                idsByOrdinal.remove(candidate, meterId);
+            }
+        }
+        cache(meterId, ordinal);
+        return ordinal;
+    }
+
+    /**
+     * Ordinal of {@code meterId}, or {@link #UNKNOWN} if it was never registered. Never assigns
+     * one, so queries for unknown meters leave the registry unchanged.
+     */
+    public int find(String meterId) {
+        Integer cached = ordinalCache.get(meterId);
+        if (cached != null) {
+            return cached;
+        }
+        Integer ordinal = ordinalsById.get(meterId);
+        if (ordinal == null) {
+            return UNKNOWN;
+        }
+        cache(meterId, ordinal);
+        return ordinal;
+    }
+
+    /**
+     * Meter id registered under {@code ordinal}, or {@code null} if there is none.
+     */
+    public String meterId(int ordinal) {
+        String cached = idCache.get(ordinal);
+        if (cached != null) {
+            return cached;
+        }
+        String meterId = idsByOrdinal.get(ordinal);
+        if (meterId != null) {
+            cache(meterId, ordinal);
+        }
+        return meterId;
+    }
+
+    /**
+     * Number of registered meters in the cluster.
+     */
+    public int size() {
+        return ordinalsById.size();
+    }
+
+    /**
+     * Claims the first free ordinal from the candidate on for {@code meterId} in the reverse map.
+     */
+    private int claimOrdinal(String meterId) {
+        int candidate = Math.max(nextCandidate.get(), idsByOrdinal.size());
+        while (idsByOrdinal.putIfAbsent(candidate, meterId) != null) {
+            candidate++;
+        }
+        nextCandidate.accumulateAndGet(candidate + 1, Math::max);
+        return candidate;
+    }
+
+    private void cache(String meterId, int ordinal) {
+        ordinalCache.put(meterId, ordinal);
+        idCache.put(ordinal, meterId);
+    }
+}
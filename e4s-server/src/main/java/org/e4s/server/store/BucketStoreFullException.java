@@ -0,0 +1,13 @@
+package org.e4s.server.store;
+
+/**
+ * Thrown when the {@link OffHeapBucketStore} cannot place a bucket because its direct memory
+ * limit is reached even after compaction. Retention or a larger {@code e4s.storage.off-heap.max-mb}
+ * frees room; retrying alone does not.
+ */
+public class BucketStoreFullException extends IllegalStateException {
+
+    public BucketStoreFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,564 @@
+package org.e4s.server.store;
+
+import org.e4s.model.MeterBucket;
+import org.e4s.model.MeterDayKey;
+import org.e4s.model.serialization.GorillaCodec;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Member-local bucket store that keeps encoded buckets outside the Java heap.
+ *
+ * <p>Buckets are encoded with {@link GorillaCodec} and appended as records to direct
+ * {@link ByteBuffer} arenas of a fixed size. The heap only holds an open-addressed index of two
+ * {@code long}s per slot (packed meter ordinal and day, record address) and one small object
+ * per arena, so the work of the garbage collector does not grow with the number of buckets.
+ * A bucket is decoded into a short-lived {@link MeterBucket} only while it is read or updated.
+ *
+ * <p>Records are never updated in place: a rewrite appends a new record and turns the old one
+ * into garbage. An arena whose records are all garbage is recycled at once, and
+ * {@link #compact()} slides the live records of mostly-garbage arenas together within the same
+ * arena, through one scratch array of the largest record moved. Recycled arenas are reused, not released, so the direct memory
+ * reserved is the peak in use, bounded by {@code maxBytes}.
+ *
+ * <p>Record layout:
+ * <pre>
+ * | Field        | Type    | Description                  |
+ * |--------------|---------|------------------------------|
+ * | meterOrdinal | int     | Meter registry ordinal       |
+ * | day          | int     | UTC epoch day                |
+ * | readingCount | int     | Number of readings           |
+ * | length       | int     | Bytes of the column stream   |
+ * | createdTime  | long    | First write (epoch millis)   |
+ * | lastWrite    | long    | Latest write (epoch millis)  |
+ * | columns      | byte[]  | {@link GorillaCodec} stream  |
+ * </pre>
+ *
+ * <p>Reads are not written to the records: {@link #markRead} keeps the last read time of a
+ * bucket in a small heap map beside the index, which retention consults with the write times.
+ *
+ * <p>Thread-safe. Reads copy a record under a shared lock and decode it after releasing the
+ * lock; placing a record and compaction take the exclusive lock. {@link #update} serializes
+ * read-modify-write cycles per key with striped locks, so concurrent updates of one bucket
+ * are not lost; writers that may race with updates must go through it rather than
+ * {@link #put}.
+ */
+public class OffHeapBucketStore {
+
+    static final int HEADER_BYTES = 32;
+
+    private static final int LOCK_STRIPES = 64;
+
+    private static final double COMPACT_LIVE_RATIO = 0.5;
+
+    private final int arenaBytes;
+    private final long maxBytes;
+    private final List<Arena> arenas = new ArrayList<>();
+    private final ArrayDeque<Integer> freeArenas = new ArrayDeque<>();
+    private final Index index = new Index(1024);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object[] stripes = new Object[LOCK_STRIPES];
+    private final ConcurrentHashMap<Long, Long> readTimes = new ConcurrentHashMap<>();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder gets = new LongAdder();
+    private byte[] scratch = new byte[0];
+    private int current = -1;
+
+    /**
+     * @param arenaBytes size of each direct buffer; a bucket record must fit in one
+     * @param maxBytes   direct memory the arenas may reserve in total
+     */
+    public OffHeapBucketStore(int arenaBytes, long maxBytes) {
+        if (arenaBytes <= HEADER_BYTES || maxBytes < arenaBytes) {
+            throw new IllegalArgumentException("Invalid off-heap sizes: arena " + arenaBytes + ", max " + maxBytes);
+        }
+        this.arenaBytes = arenaBytes;
+        this.maxBytes = maxBytes;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    /**
+     * @return the decoded bucket, or {@code null} if there is none
+     */
+    public MeterBucket get(int meterOrdinal, long day) {
+        gets.increment();
+        int count;
+        long createdTime;
+        long lastWriteTime;
+        byte[] columns;
+        lock.readLock().lock();
+        try {
+            long address = index.get(key(meterOrdinal, day));
+            if (address == Index.EMPTY) {
+                return null;
+            }
+            ByteBuffer buffer = arenas.get(arenaOf(address)).buffer;
+            int offset = offsetOf(address);
+            count = buffer.getInt(offset + 8);
+            createdTime = buffer.getLong(offset + 16);
+            lastWriteTime = buffer.getLong(offset + 24);
+            columns = new byte[buffer.getInt(offset + 12)];
+            buffer.get(offset + HEADER_BYTES, columns);
+        } finally {
+            lock.readLock().unlock();
+        }
+        MeterBucket bucket = new MeterBucket(meterOrdinal, day);
+        GorillaCodec.decodeInto(columns, count, bucket);
+        bucket.setCreatedTime(createdTime);
+        bucket.setLastWriteTime(lastWriteTime);
+        return bucket;
+    }
+
+    /**
+     * Stores {@code bucket} under its meter ordinal and day, replacing any previous version.
+     * Does not take the key's update lock; a concurrent {@link #update} of the same key may
+     * overwrite it.
+     *
+     * @throws BucketStoreFullException if {@code maxBytes} is reached even after compaction
+     */
+    public void put(MeterBucket bucket) {
+        puts.increment();
+        byte[] columns = GorillaCodec.encode(bucket);
+        int length = HEADER_BYTES + columns.length;
+        if (length > arenaBytes) {
+            throw new IllegalArgumentException("Bucket of " + length + " bytes exceeds the arena size " + arenaBytes);
+        }
+        long key = key(bucket.getMeterOrdinal(), bucket.getBucketDateEpochDay());
+        lock.writeLock().lock();
+        try {
+            long address = allocate(length);
+            ByteBuffer buffer = arenas.get(arenaOf(address)).buffer;
+            int offset = offsetOf(address);
+            buffer.putInt(offset, bucket.getMeterOrdinal());
+            buffer.putInt(offset + 4, (int) bucket.getBucketDateEpochDay());
+            buffer.putInt(offset + 8, bucket.getReadingCount());
+            buffer.putInt(offset + 12, columns.length);
+            buffer.putLong(offset + 16, bucket.getCreatedTime());
+            buffer.putLong(offset + 24, bucket.getLastWriteTime());
+            buffer.put(offset + HEADER_BYTES, columns);
+            release(index.put(key, address));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the bucket with {@code update} applied to it, atomically with respect to other
+     * updates of the same key. {@code update} receives {@code null} if there is no bucket and
+     * may return {@code null} to remove it.
+     *
+     * @return the bucket returned by {@code update}
+     * @throws BucketStoreFullException if {@code maxBytes} is reached even after compaction
+     */
+    public MeterBucket update(int meterOrdinal, long day, UnaryOperator<MeterBucket> update) {
+        synchronized (stripes[Math.floorMod(Long.hashCode(key(meterOrdinal, day)), LOCK_STRIPES)]) {
+            MeterBucket bucket = update.apply(get(meterOrdinal, day));
+            if (bucket == null) {
+                remove(meterOrdinal, day);
+            } else {
+                put(bucket);
+            }
+            return bucket;
+        }
+    }
+
+    /**
+     * Records a read of the bucket at {@code now} without rewriting it; retention treats a bucket
+     * read since its idle threshold like one written since.
+     */
+    public void markRead(int meterOrdinal, long day, long now) {
+        readTimes.merge(key(meterOrdinal, day), now, Math::max);
+    }
+
+    /**
+     * @return {@code true} if a bucket was removed
+     */
+    public boolean remove(int meterOrdinal, long day) {
+        lock.writeLock().lock();
+        try {
+            readTimes.remove(key(meterOrdinal, day));
+            long address = index.remove(key(meterOrdinal, day));
+            release(address);
+            return address != Index.EMPTY;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every bucket of a day up to and including {@code lastDay}.
+     *
+     * @return number of buckets removed
+     */
+    public int removeThrough(long lastDay) {
+        return removeMatching(lastDay, Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Removes the buckets of days up to and including {@code lastDay} that were created before
+     * {@code createdBefore} and neither written nor {@linkplain #markRead read} since
+     * {@code idleSince}. Write times are read from the record headers without decoding the
+     * columns. The same rule as the maps' eviction. Read times older than {@code idleSince} are
+     * dropped, as they can no longer keep a bucket.
+     *
+     * @return number of buckets removed
+     */
+    public int removeExpired(long lastDay, long createdBefore, long idleSince) {
+        int removed = removeMatching(lastDay, createdBefore, idleSince);
+        readTimes.values().removeIf(readTime -> readTime < idleSince);
+        return removed;
+    }
+
+    private int removeMatching(long lastDay, long createdBefore, long idleSince) {
+        lock.writeLock().lock();
+        try {
+            List<MeterDayKey> expired = keys(key -> {
+                if (dayOf(key) > lastDay) {
+                    return false;
+                }
+                long address = index.get(key);
+                ByteBuffer buffer = arenas.get(arenaOf(address)).buffer;
+                int offset = offsetOf(address);
+                return buffer.getLong(offset + 16) < createdBefore && buffer.getLong(offset + 24) < idleSince
+                        && readTimes.getOrDefault(key, Long.MIN_VALUE) < idleSince;
+            });
+            for (MeterDayKey dayKey : expired) {
+                long key = key(dayKey.getMeterOrdinal(), dayKey.getDayEpochDay());
+                readTimes.remove(key);
+                release(index.remove(key));
+            }
+            return expired.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Keys of the buckets of days in {@code [firstDay, lastDay]}, in no particular order.
+     */
+    public List<MeterDayKey> keysBetween(long firstDay, long lastDay) {
+        lock.readLock().lock();
+        try {
+            return keys(key -> dayOf(key) >= firstDay && dayOf(key) <= lastDay);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keys of the buckets of one meter, in no particular order.
+     */
+    public List<MeterDayKey> keysOf(int meterOrdinal) {
+        lock.readLock().lock();
+        try {
+            return keys(key -> (int) (key >>> 32) == meterOrdinal);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Closes the gaps left by garbage in arenas that are less than half live, moving their live
+     * records to the front of the same arena. Called by retention after removing expired
+     * buckets, and by allocation before it gives up at {@code maxBytes}.
+     *
+     * @return number of bytes reclaimed
+     */
+    public long compact() {
+        lock.writeLock().lock();
+        try {
+            return compactArenas();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bytes of the current bucket records.
+     */
+    public long getLiveBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (Arena arena : arenas) {
+                bytes += arena.liveBytes;
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Direct memory held by the arenas, including garbage and recycled arenas.
+     */
+    public long getReservedBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) arenas.size() * arenaBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Heap held by the index arrays.
+     */
+    public long getIndexHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return 2L * Long.BYTES * index.keys.length;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getPutCount() {
+        return puts.sum();
+    }
+
+    public long getGetCount() {
+        return gets.sum();
+    }
+
+    private List<MeterDayKey> keys(LongPredicate filter) {
+        List<MeterDayKey> keys = new ArrayList<>();
+        for (int i = 0; i < index.keys.length; i++) {
+            if (index.addresses[i] != Index.EMPTY && filter.test(index.keys[i])) {
+                long key = index.keys[i];
+                keys.add(new MeterDayKey((int) (key >>> 32), dayOf(key)));
+            }
+        }
+        return keys;
+    }
+
+    private long allocate(int length) {
+        if (current < 0 || arenas.get(current).position + length > arenaBytes) {
+            current = nextArena(length);
+        }
+        Arena arena = arenas.get(current);
+        long address = ((long) current << 32) | arena.position;
+        arena.position += length;
+        arena.liveBytes += length;
+        return address;
+    }
+
+    private int nextArena(int length) {
+        boolean full = (long) (arenas.size() + 1) * arenaBytes > maxBytes;
+        if (freeArenas.isEmpty() && full) {
+            compactArenas();
+            if (freeArenas.isEmpty()) {
+                for (int i = 0; i < arenas.size(); i++) {
+                    if (arenas.get(i).position + length <= arenaBytes) {
+                        return i;
+                    }
+                }
+            }
+        }
+        if (!freeArenas.isEmpty()) {
+            return freeArenas.poll();
+        }
+        if (full) {
+            throw new BucketStoreFullException("Off-heap bucket store is full: " + maxBytes + " bytes");
+        }
+        arenas.add(new Arena(ByteBuffer.allocateDirect(arenaBytes)));
+        return arenas.size() - 1;
+    }
+
+    private void release(long address) {
+        if (address == Index.EMPTY) {
+            return;
+        }
+        int arenaIndex = arenaOf(address);
+        Arena arena = arenas.get(arenaIndex);
+        arena.liveBytes -= HEADER_BYTES + arena.buffer.getInt(offsetOf(address) + 12);
+        if (arena.liveBytes == 0 && arenaIndex != current) {
+            recycle(arenaIndex);
+        }
+    }
+
+    private void recycle(int arenaIndex) {
+        Arena arena = arenas.get(arenaIndex);
+        arena.position = 0;
+        arena.liveBytes = 0;
+        freeArenas.add(arenaIndex);
+    }
+
+    private long compactArenas() {
+        long reclaimed = 0;
+        for (int i = 0; i < arenas.size(); i++) {
+            Arena arena = arenas.get(i);
+            if (arena.position == 0 || arena.liveBytes >= arena.position * COMPACT_LIVE_RATIO) {
+                continue;
+            }
+            int target = 0;
+            int offset = 0;
+            while (offset < arena.position) {
+                int length = HEADER_BYTES + arena.buffer.getInt(offset + 12);
+                long key = key(arena.buffer.getInt(offset), arena.buffer.getInt(offset + 4));
+                if (index.get(key) == (((long) i << 32) | offset)) {
+                    if (target != offset) {
+                        if (scratch.length < length) {
+                            scratch = new byte[length];
+                        }
+                        arena.buffer.get(offset, scratch, 0, length);
+                        arena.buffer.put(target, scratch, 0, length);
+                        index.put(key, ((long) i << 32) | target);
+                    }
+                    target += length;
+                }
+                offset += length;
+            }
+            reclaimed += arena.position - target;
+            arena.position = target;
+            if (target == 0 && i != current) {
+                recycle(i);
+            }
+        }
+        return reclaimed;
+    }
+
+    private static long key(int meterOrdinal, long day) {
+        return ((long) meterOrdinal << 32) | (day & 0xFFFFFFFFL);
+    }
+
+    private static int dayOf(long key) {
+        return (int) key;
+    }
+
+    private static int arenaOf(long address) {
+        return (int) (address >>> 32);
+    }
+
+    private static int offsetOf(long address) {
+        return (int) address;
+    }
+
+    private static final class Arena {
+
+        final ByteBuffer buffer;
+        int position;
+        long liveBytes;
+
+        Arena(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * Open-addressed map from packed key to record address with linear probing and
+     * backward-shift deletion, kept at most half full.
+     */
+    private static final class Index {
+
+        static final long EMPTY = -1L;
+
+        long[] keys;
+        long[] addresses;
+        int size;
+        int mask;
+
+        Index(int capacity) {
+            allocate(capacity);
+        }
+
+        long get(long key) {
+            for (int i = slot(key); ; i = (i + 1) & mask) {
+                long address = addresses[i];
+                if (address == EMPTY || keys[i] == key) {
+                    return address;
+                }
+            }
+        }
+
+        /**
+         * @return the previous address, or {@link #EMPTY}
+         */
+        long put(long key, long address) {
+            int i = slot(key);
+            while (addresses[i] != EMPTY) {
+                if (keys[i] == key) {
+                    long previous = addresses[i];
+                    addresses[i] = address;
+                    return previous;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            addresses[i] = address;
+            if (++size > keys.length >>> 1) {
+                grow();
+            }
+            return EMPTY;
+        }
+
+        /**
+         * @return the removed address, or {@link #EMPTY}
+         */
+        long remove(long key) {
+            int i = slot(key);
+            while (addresses[i] != EMPTY && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            long removed = addresses[i];
+            if (removed == EMPTY) {
+                return EMPTY;
+            }
+            int gap = i;
+            for (int j = (i + 1) & mask; addresses[j] != EMPTY; j = (j + 1) & mask) {
+                if (((j - slot(keys[j])) & mask) >= ((j - gap) & mask)) {
+                    keys[gap] = keys[j];
+                    addresses[gap] = addresses[j];
+                    gap = j;
+                }
+            }
+            addresses[gap] = EMPTY;
+            size--;
+            return removed;
+        }
+
+        private int slot(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            long[] oldAddresses = addresses;
+            allocate(keys.length << 1);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldAddresses[i] != EMPTY) {
+                    put(oldKeys[i], oldAddresses[i]);
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            addresses = new long[capacity];
+            Arrays.fill(addresses, EMPTY);
+            mask = capacity - 1;
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.e4s.server.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.e4s.model.MeterReading;
+import org.e4s.model.serialization.CompressionCodecs;
+import org.e4s.model.serialization.KryoIngestCodec;
+import org.e4s.server.service.MeterCacheService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AdminController.class)
+class AdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private MeterCacheService meterCacheService;
+
+    @Test
+    void testBulkLoadJson() throws Exception {
+        MeterCacheService.IngestRequest request = new MeterCacheService.IngestRequest();
+        request.setMeterId("MTR-001");
+        request.setReadings(List.of(
+                new MeterReading(1000L, 1.0, 1.0, 1.0),
+                new MeterReading(2000L, 1.0, 1.0, 1.0)
+        ));
+        when(meterCacheService.bulkLoad(anyList())).thenReturn(1);
+
+        mockMvc.perform(post("/api/v1/admin/bulk-load")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(request))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("success"))
+                .andExpect(jsonPath("$.buckets").value(1))
+                .andExpect(jsonPath("$.readings").value(2));
+    }
+
+    @Test
+    void testInvalidBulkLoadIsRejected() throws Exception {
+        for (String body : List.of("[null]", "[{\"readings\":[]}]", "[{\"meterId\":\"MTR-001\"}]",
+                "[{\"meterId\":\"MTR-001\",\"readings\":[null]}]")) {
+            mockMvc.perform(post("/api/v1/admin/bulk-load")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.status").value("invalid"));
+        }
+
+        verify(meterCacheService, never()).bulkLoad(anyList());
+    }
+
+    @Test
+    void testBulkLoadKryo() throws Exception {
+        byte[] body = KryoIngestCodec.encode(Map.of("MTR-001", List.of(
+                new MeterReading(1000L, 1.0, 1.0, 1.0))), CompressionCodecs.NONE);
+        when(meterCacheService.bulkLoad(anyList())).thenReturn(1);
+
+        mockMvc.perform(post("/api/v1/admin/bulk-load")
+                        .contentType(KryoIngestCodec.CONTENT_TYPE)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.readings").value(1));
+
+        verify(meterCacheService).bulkLoad(argThat(requests -> requests.get(0).getMeterId().equals("MTR-001")));
+    }
+}
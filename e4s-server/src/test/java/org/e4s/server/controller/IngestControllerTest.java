@@ -2,7 +2,11 @@ package org.e4s.server.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.e4s.model.MeterReading;
+import org.e4s.model.serialization.CompressionCodecs;
+import org.e4s.model.serialization.KryoIngestCodec;
+import org.e4s.server.service.AsyncIngestPipeline;
 import org.e4s.server.service.MeterCacheService;
+import org.e4s.server.store.BucketStoreFullException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -13,6 +17,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -31,6 +36,9 @@ class IngestControllerTest {
     @MockBean
     private MeterCacheService meterCacheService;
 
+    @MockBean
+    private AsyncIngestPipeline asyncIngestPipeline;
+
     @Test
     void testIngestSingle() throws Exception {
         long now = System.currentTimeMillis();
@@ -66,6 +74,38 @@ class IngestControllerTest {
         verify(meterCacheService).ingestReadings(eq("MTR-001"), anyList());
     }
 
+    @Test
+    void testFullStoreIsInsufficientStorage() throws Exception {
+        doThrow(new BucketStoreFullException("full")).when(meterCacheService).ingestReadings(anyString(), anyList());
+
+        mockMvc.perform(post("/api/v1/ingest/batch")
+                        .param("meterId", "MTR-001")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(new MeterReading(1L, 1.0, 1.0, 1.0)))))
+                .andExpect(status().isInsufficientStorage())
+                .andExpect(jsonPath("$.status").value("full"));
+    }
+
+    @Test
+    void testNullReadingIsRejected() throws Exception {
+        mockMvc.perform(post("/api/v1/ingest/batch")
+                        .param("meterId", "MTR-001")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[null]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/v1/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"meterId\":\"MTR-001\",\"readings\":[null]}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("invalid"));
+        mockMvc.perform(post("/api/v1/batch/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"meterId\":\"MTR-001\",\"readings\":[null]}]"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(meterCacheService);
+    }
+
     @Test
     void testBatchIngest() throws Exception {
         MeterCacheService.IngestRequest request1 = new MeterCacheService.IngestRequest();
@@ -104,4 +144,94 @@ class IngestControllerTest {
 
         verify(meterCacheService, never()).ingestReading(anyString(), any());
     }
+
+    @Test
+    void testAsyncIngestAccepted() throws Exception {
+        when(asyncIngestPipeline.isEnabled()).thenReturn(true);
+        when(asyncIngestPipeline.offer(eq("MTR-001"), anyList())).thenReturn(true);
+        MeterReading reading = new MeterReading(System.currentTimeMillis(), 1.0, 1.0, 1.0);
+
+        mockMvc.perform(post("/api/v1/ingest")
+                        .param("meterId", "MTR-001")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reading)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("accepted"));
+
+        verify(meterCacheService, never()).ingestReading(anyString(), any());
+    }
+
+    @Test
+    void testAsyncIngestRejectedWhenBufferFull() throws Exception {
+        when(asyncIngestPipeline.isEnabled()).thenReturn(true);
+        when(asyncIngestPipeline.offerBatch(anyList())).thenReturn(false);
+        when(asyncIngestPipeline.getRetryAfterSeconds()).thenReturn(2);
+        MeterCacheService.IngestRequest request = new MeterCacheService.IngestRequest();
+        request.setMeterId("MTR-001");
+        request.setReadings(List.of(new MeterReading(System.currentTimeMillis(), 1.0, 1.0, 1.0)));
+
+        mockMvc.perform(post("/api/v1/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(request))))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.status").value("rejected"));
+
+        verify(meterCacheService, never()).ingestBatch(anyList());
+    }
+
+    @Test
+    void testBatchIngestKryo() throws Exception {
+        byte[] body = KryoIngestCodec.encode(Map.of("MTR-001", List.of(
+                new MeterReading(System.currentTimeMillis(), 1.0, 1.0, 1.0),
+                new MeterReading(System.currentTimeMillis() + 900000, 1.0, 1.0, 1.0)
+        )), CompressionCodecs.DEFLATE_FAST);
+
+        mockMvc.perform(post("/api/v1/batch")
+                        .contentType(KryoIngestCodec.CONTENT_TYPE)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("success"))
+                .andExpect(jsonPath("$.count").value(2));
+
+        verify(meterCacheService).ingestBatch(argThat(requests ->
+                requests.size() == 1 && requests.get(0).getMeterId().equals("MTR-001")
+                        && requests.get(0).getReadings().size() == 2));
+    }
+
+    @Test
+    void testBatchIngestKryoRejectsCorruptBody() throws Exception {
+        mockMvc.perform(post("/api/v1/batch")
+                        .contentType(KryoIngestCodec.CONTENT_TYPE)
+                        .content(new byte[]{1, 0, 0}))
+                .andExpect(status().isBadRequest());
+
+        verify(meterCacheService, never()).ingestBatch(anyList());
+    }
+
+    @Test
+    void testStreamIngestNdjson() throws Exception {
+        String body = "{\"meterId\":\"MTR-001\",\"readings\":[{\"reportedTs\":1000,\"voltage\":1.0,\"current\":1.0,\"power\":1.0}]}\n"
+                + "{\"meterId\":\"MTR-002\",\"readings\":[{\"reportedTs\":2000,\"voltage\":1.0,\"current\":1.0,\"power\":1.0}]}\n";
+
+        mockMvc.perform(post("/api/v1/batch/stream")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("success"))
+                .andExpect(jsonPath("$.count").value(2));
+
+        verify(meterCacheService).ingestBatch(argThat(requests -> requests.size() == 2));
+    }
+
+    @Test
+    void testStreamIngestMalformedBody() throws Exception {
+        mockMvc.perform(post("/api/v1/batch/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"meterId\":\"MTR-001\",\"readings\":[{\"reportedTs\":"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.count").value(0));
+
+        verify(meterCacheService, never()).ingestBatch(anyList());
+    }
 }
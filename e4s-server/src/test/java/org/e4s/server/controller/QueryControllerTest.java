@@ -11,6 +11,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.List;
@@ -128,6 +129,55 @@ class QueryControllerTest {
                 .andExpect(jsonPath("$.meterId").value("MTR-001"));
     }
 
+    @Test
+    void testBucketDays() throws Exception {
+        when(meterCacheService.getBucketDays("MTR-001"))
+                .thenReturn(List.of(LocalDate.of(2026, 2, 17), LocalDate.of(2026, 2, 18)));
+
+        mockMvc.perform(get("/api/v1/meters/MTR-001/days"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("2026-02-17"))
+                .andExpect(jsonPath("$[1]").value("2026-02-18"));
+    }
+
+    @Test
+    void testQueryFleetAggregate() throws Exception {
+        MeterCacheService.FleetAggregationResult mockResult = new MeterCacheService.FleetAggregationResult();
+        mockResult.setMeterCount(2);
+        mockResult.setAggregationType(MeterCacheService.AggregationType.SUM);
+        mockResult.setValue(2500.0);
+        mockResult.setCount(8);
+
+        when(meterCacheService.queryFleetAggregation(
+                eq(List.of("MTR-001", "MTR-002")), any(Instant.class), any(Instant.class),
+                eq(MeterCacheService.AggregationType.SUM)))
+                .thenReturn(mockResult);
+
+        mockMvc.perform(post("/api/v1/meters/aggregate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"meterIds\":[\"MTR-001\",\"MTR-002\"]," +
+                                "\"start\":\"2026-02-18T10:00:00Z\",\"end\":\"2026-02-18T11:00:00Z\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.meterCount").value(2))
+                .andExpect(jsonPath("$.value").value(2500.0))
+                .andExpect(jsonPath("$.count").value(8));
+    }
+
+    @Test
+    void testQueryFleetAggregateRequiresRange() throws Exception {
+        mockMvc.perform(post("/api/v1/meters/aggregate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"meterIds\":[\"MTR-001\"]}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/v1/meters/aggregate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"start\":\"2026-02-18T10:00:00Z\",\"end\":\"2026-02-18T11:00:00Z\","
+                                + "\"type\":null}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(meterCacheService);
+    }
+
     @Test
     void testQueryAggregateSum() throws Exception {
         MeterCacheService.AggregationResult mockResult = new MeterCacheService.AggregationResult();
@@ -0,0 +1,205 @@
+package org.e4s.server.model;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.config.SerializerConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import org.e4s.model.BucketRollup;
+import org.e4s.model.MeterBucket;
+import org.e4s.model.MeterReading;
+import org.e4s.model.serialization.CompressionCodec;
+import org.e4s.model.serialization.CompressionCodecs;
+import org.e4s.model.serialization.MeterBucketHazelcastSerializer;
+import org.e4s.model.serialization.MeterReadingHazelcastSerializer;
+import org.e4s.model.serialization.ReusableBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressionCodecsTest {
+
+    private static final long DAY = LocalDate.of(2026, 2, 18).toEpochDay();
+
+    @Test
+    void testCodecRoundTrip() throws IOException {
+        byte[] data = new byte[4096];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i % 7);
+        }
+
+        for (CompressionCodec codec : new CompressionCodec[]{
+                CompressionCodecs.NONE, CompressionCodecs.DEFLATE, CompressionCodecs.DEFLATE_FAST}) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            codec.write(new DataOutputStream(bytes), data, 1000);
+
+            ReusableBuffer target = new ReusableBuffer(16);
+            int length = codec.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), target);
+
+            assertEquals(1000, length, codec.getName());
+            for (int i = 0; i < length; i++) {
+                assertEquals(data[i], target.array()[i], codec.getName());
+            }
+        }
+    }
+
+    @Test
+    void testCodecReusesThreadStateAcrossCalls() throws IOException {
+        ReusableBuffer target = new ReusableBuffer(16);
+        for (int round = 0; round < 3; round++) {
+            byte[] data = new byte[100 + round * 500];
+            Arrays.fill(data, (byte) round);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            CompressionCodecs.DEFLATE.write(new DataOutputStream(bytes), data, data.length);
+
+            int length = CompressionCodecs.DEFLATE.read(
+                    new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), target);
+
+            assertEquals(data.length, length);
+            assertEquals((byte) round, target.array()[length - 1]);
+        }
+    }
+
+    @Test
+    void testRejectsForgedBlockLengthsBeforeAllocating() throws IOException {
+        ReusableBuffer target = new ReusableBuffer(16);
+        byte[] hugeNone = header(Integer.MAX_VALUE);
+        byte[] negativeNone = header(-1);
+        byte[] hugeDeflate = header(Integer.MAX_VALUE, 4);
+        byte[] hugeCompressed = header(100, Integer.MAX_VALUE);
+        byte[] negativeCompressed = header(100, -5);
+
+        assertThrows(IOException.class, () -> CompressionCodecs.NONE.read(input(hugeNone), target, 1 << 20));
+        assertThrows(IOException.class, () -> CompressionCodecs.NONE.read(input(negativeNone), target));
+        assertThrows(IOException.class, () -> CompressionCodecs.DEFLATE.read(input(hugeDeflate), target, 1 << 20));
+        assertThrows(IOException.class, () -> CompressionCodecs.DEFLATE.read(input(hugeCompressed), target, 1 << 20));
+        assertThrows(IOException.class, () -> CompressionCodecs.DEFLATE.read(input(negativeCompressed), target));
+        assertEquals(16, target.array().length);
+    }
+
+    @Test
+    void testReleaseDropsOversizedBuffer() {
+        ReusableBuffer buffer = new ReusableBuffer(16, 1024);
+
+        buffer.ensureCapacity(512);
+        buffer.release();
+        assertEquals(512, buffer.array().length);
+
+        buffer.ensureCapacity(4096);
+        buffer.release();
+        assertEquals(16, buffer.array().length);
+    }
+
+    @Test
+    void testLookup() {
+        assertSame(CompressionCodecs.DEFLATE, CompressionCodecs.byName("deflate"));
+        assertSame(CompressionCodecs.DEFLATE_FAST, CompressionCodecs.byName(" Deflate-Fast "));
+        assertSame(CompressionCodecs.NONE, CompressionCodecs.byId((byte) 0));
+        assertThrows(IllegalArgumentException.class, () -> CompressionCodecs.byName("lz5"));
+        assertThrows(IllegalArgumentException.class, () -> CompressionCodecs.byId((byte) 99));
+    }
+
+    @Test
+    void testBucketWrittenWithOneCodecIsReadableByAnother() {
+        MeterBucket bucket = new MeterBucket(1, DAY);
+        for (int i = 0; i < 96; i++) {
+            bucket.addReading(DAY * 86_400_000L + i * 900_000L, 230.1, 5.25, 1208.0 + i);
+        }
+        bucket.markWritten(1_000L);
+        bucket.markWritten(2_000L);
+
+        Data data = serializationService(CompressionCodecs.DEFLATE).toData(bucket);
+        MeterBucket copy = serializationService(CompressionCodecs.NONE).toObject(data);
+
+        assertEquals(1, copy.getMeterOrdinal());
+        assertEquals(DAY, copy.getBucketDateEpochDay());
+        assertEquals(96, copy.getReadingCount());
+        assertEquals(1_000L, copy.getCreatedTime());
+        assertEquals(2_000L, copy.getLastWriteTime());
+        assertEquals(bucket.getTimestamp(95), copy.getTimestamp(95));
+        assertEquals(1303.0, copy.getPower(95));
+        BucketRollup rollup = copy.getRollup();
+        assertEquals(96, rollup.getCount());
+        assertEquals(4, rollup.getHourCount(23));
+        assertEquals(bucket.getRollup().getHourSum(23), rollup.getHourSum(23));
+        assertEquals(1208.0, rollup.getMin(BucketRollup.POWER));
+        assertEquals(5.25, rollup.getMax(BucketRollup.CURRENT));
+    }
+
+    @Test
+    void testColumnsDecodeIndependentlyAfterRead() {
+        MeterBucket bucket = new MeterBucket(1, DAY);
+        for (int i = 0; i < 96; i++) {
+            bucket.addReading(DAY * 86_400_000L + i * 900_000L, 230.1 + i, 5.25, 1208.0 + i);
+        }
+
+        for (CompressionCodec codec : new CompressionCodec[]{CompressionCodecs.NONE, CompressionCodecs.DEFLATE}) {
+            SerializationService serializationService = serializationService(codec);
+            MeterBucket copy = serializationService.toObject(serializationService.toData(bucket));
+
+            assertEquals(DAY * 86_400_000L, copy.getMinTimestamp());
+            assertEquals(DAY * 86_400_000L + 95 * 900_000L, copy.getMaxTimestamp());
+            assertArrayEquals(Arrays.copyOf(bucket.getPowers(), 96), copy.getPowers());
+            assertArrayEquals(Arrays.copyOf(bucket.getVoltages(), 96), copy.getVoltages());
+
+            copy.addReading(DAY * 86_400_000L + 96 * 900_000L, 230.0, 5.0, 1.0);
+            MeterBucket again = serializationService.toObject(serializationService.toData(copy));
+            assertEquals(97, again.getReadingCount());
+            assertEquals(bucket.getTimestamp(95), again.getTimestamp(95));
+            assertEquals(5.25, again.getCurrent(0));
+            assertEquals(1.0, again.getPower(96));
+        }
+    }
+
+    @Test
+    void testEmptyBucketRollupRoundTrip() {
+        MeterBucket copy = serializationService(CompressionCodecs.NONE)
+                .toObject(serializationService(CompressionCodecs.NONE).toData(new MeterBucket(1, DAY)));
+
+        assertEquals(0, copy.getReadingCount());
+        assertEquals(0, copy.getRollup().getCount());
+    }
+
+    @Test
+    void testReadingRoundTrip() {
+        MeterReading reading = new MeterReading(1_000L, 220.5, 5.2, 1146.6);
+
+        Data data = serializationService(CompressionCodecs.DEFLATE_FAST).toData(reading);
+        MeterReading copy = serializationService(CompressionCodecs.NONE).toObject(data);
+
+        assertEquals(1_000L, copy.getReportedTs());
+        assertEquals(1146.6, copy.getPower());
+    }
+
+    private static SerializationService serializationService(CompressionCodec codec) {
+        SerializationConfig config = new SerializationConfig();
+        config.addSerializerConfig(new SerializerConfig()
+                .setTypeClass(MeterReading.class)
+                .setImplementation(new MeterReadingHazelcastSerializer(codec)));
+        config.addSerializerConfig(new SerializerConfig()
+                .setTypeClass(MeterBucket.class)
+                .setImplementation(new MeterBucketHazelcastSerializer(codec)));
+        return new DefaultSerializationServiceBuilder().setConfig(config).build();
+    }
+
+    private static byte[] header(int... ints) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (int value : ints) {
+            out.writeInt(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static DataInputStream input(byte[] bytes) {
+        return new DataInputStream(new ByteArrayInputStream(bytes));
+    }
+}
@@ -0,0 +1,96 @@
+package org.e4s.server.model;
+
+import org.e4s.model.MeterBucket;
+import org.e4s.model.serialization.GorillaCodec;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GorillaCodecTest {
+
+    private static final long DAY = LocalDate.of(2026, 2, 18).toEpochDay();
+    private static final long DAY_START = DAY * 86_400_000L;
+
+    @Test
+    void testRoundTripFixedIntervalDecimals() {
+        Random random = new Random(7);
+        MeterBucket bucket = new MeterBucket(1, DAY);
+        for (int i = 0; i < 96; i++) {
+            bucket.addReading(DAY_START + i * 900_000L,
+                    Math.round((220 + random.nextDouble() * 10) * 10) / 10.0,
+                    Math.round((5 + random.nextDouble() * 2) * 100) / 100.0,
+                    Math.round((1000 + random.nextDouble() * 500) * 10) / 10.0);
+        }
+
+        byte[] encoded = GorillaCodec.encode(bucket);
+
+        assertRoundTrip(bucket, encoded);
+        assertTrue(encoded.length < 96 * 8, "expected well under 8 bytes/reading, got " + encoded.length);
+    }
+
+    @Test
+    void testRoundTripArbitraryDoubles() {
+        Random random = new Random(11);
+        MeterBucket bucket = new MeterBucket(1, DAY);
+        for (int i = 0; i < 96; i++) {
+            bucket.addReading(DAY_START + i * 900_000L,
+                    220 + random.nextDouble() * 10,
+                    -random.nextDouble(),
+                    1000 + random.nextDouble() * 500);
+        }
+
+        assertRoundTrip(bucket, GorillaCodec.encode(bucket));
+    }
+
+    @Test
+    void testRoundTripJitteredAndOutOfOrderTimestamps() {
+        MeterBucket bucket = new MeterBucket(1, DAY);
+        bucket.addReading(DAY_START + 900_000L, 230.0, 5.0, 1150.0);
+        bucket.addReading(DAY_START + 1_800_123L, 230.0, 5.0, 1150.0);
+        bucket.addReading(DAY_START, 230.0, 5.0, 1150.0);
+        bucket.addReading(DAY_START + 86_399_999L, 230.0, 5.0, 1150.0);
+        bucket.addReading(Long.MIN_VALUE, 230.0, 5.0, 1150.0);
+        bucket.addReading(Long.MAX_VALUE, 230.0, 5.0, 1150.0);
+
+        assertRoundTrip(bucket, GorillaCodec.encode(bucket));
+    }
+
+    @Test
+    void testRoundTripSpecialValues() {
+        MeterBucket bucket = new MeterBucket(1, DAY);
+        bucket.addReading(DAY_START, -0.0, Double.NaN, Double.MAX_VALUE);
+        bucket.addReading(DAY_START + 900_000L, 0.0, Double.POSITIVE_INFINITY, Double.MIN_VALUE);
+        bucket.addReading(DAY_START + 1_800_000L, 1e300, Double.NEGATIVE_INFINITY, -Double.MAX_VALUE);
+
+        assertRoundTrip(bucket, GorillaCodec.encode(bucket));
+    }
+
+    @Test
+    void testEmptyBucket() {
+        MeterBucket bucket = new MeterBucket(1, DAY);
+
+        byte[] encoded = GorillaCodec.encode(bucket);
+
+        assertEquals(0, encoded.length);
+        assertRoundTrip(bucket, encoded);
+    }
+
+    private static void assertRoundTrip(MeterBucket expected, byte[] encoded) {
+        MeterBucket decoded = new MeterBucket();
+        GorillaCodec.decodeInto(encoded, expected.getReadingCount(), decoded);
+
+        assertEquals(expected.getReadingCount(), decoded.getReadingCount());
+        for (int i = 0; i < expected.getReadingCount(); i++) {
+            assertEquals(expected.getTimestamp(i), decoded.getTimestamp(i));
+            assertEquals(Double.doubleToRawLongBits(expected.getVoltage(i)),
+                    Double.doubleToRawLongBits(decoded.getVoltage(i)));
+            assertEquals(Double.doubleToRawLongBits(expected.getCurrent(i)),
+                    Double.doubleToRawLongBits(decoded.getCurrent(i)));
+            assertEquals(Double.doubleToRawLongBits(expected.getPower(i)),
+                    Double.doubleToRawLongBits(decoded.getPower(i)));
+        }
+    }
+}
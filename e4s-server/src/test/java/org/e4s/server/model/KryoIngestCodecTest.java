@@ -0,0 +1,81 @@
+package org.e4s.server.model;
+
+import org.e4s.model.MeterReading;
+import org.e4s.model.serialization.CompressionCodec;
+import org.e4s.model.serialization.CompressionCodecs;
+import org.e4s.model.serialization.KryoIngestCodec;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KryoIngestCodecTest {
+
+    @Test
+    void testRoundTripWithEachCodec() throws IOException {
+        Map<String, List<MeterReading>> batch = new LinkedHashMap<>();
+        batch.put("MTR-001", readings(96, 1000L));
+        batch.put("MTR-002", readings(3, 5000L));
+
+        for (CompressionCodec codec : List.of(CompressionCodecs.NONE, CompressionCodecs.DEFLATE_FAST)) {
+            byte[] body = KryoIngestCodec.encode(batch, codec);
+
+            Map<String, List<MeterReading>> decoded = new LinkedHashMap<>();
+            int total = KryoIngestCodec.decode(new ByteArrayInputStream(body), decoded::put);
+
+            assertEquals(99, total, codec.getName());
+            assertEquals(List.of("MTR-001", "MTR-002"), new ArrayList<>(decoded.keySet()));
+            MeterReading last = decoded.get("MTR-001").get(95);
+            assertEquals(1000L + 95 * 900_000L, last.getReportedTs());
+            assertEquals(220.0 + 95 * 0.1, last.getVoltage());
+            assertEquals(1195.0, last.getPower());
+        }
+    }
+
+    @Test
+    void testEncodesAboutThirtyTwoBytesPerReading() {
+        byte[] body = KryoIngestCodec.encode(Map.of("MTR-001", readings(96, 1000L)), CompressionCodecs.NONE);
+
+        assertTrue(body.length < 96 * 33 + 32, "length " + body.length);
+    }
+
+    @Test
+    void testRejectsCorruptPayload() {
+        byte[] body = KryoIngestCodec.encode(Map.of("MTR-001", readings(10, 1000L)), CompressionCodecs.NONE);
+        byte[] truncated = Arrays.copyOf(body, body.length - 40);
+        byte[] wrongVersion = body.clone();
+        wrongVersion[0] = 99;
+
+        assertThrows(IOException.class,
+                () -> KryoIngestCodec.decode(new ByteArrayInputStream(truncated), (m, r) -> { }));
+        assertThrows(IOException.class,
+                () -> KryoIngestCodec.decode(new ByteArrayInputStream(wrongVersion), (m, r) -> { }));
+    }
+
+    @Test
+    void testRejectsForgedPayloadLength() throws IOException {
+        byte[] forged = {KryoIngestCodec.FORMAT_VERSION, CompressionCodecs.NONE.getId(), 0x7f, -1, -1, -1, 0, 0};
+        byte[] body = KryoIngestCodec.encode(Map.of("MTR-001", readings(100, 1000L)), CompressionCodecs.DEFLATE_FAST);
+
+        assertThrows(IOException.class,
+                () -> KryoIngestCodec.decode(new ByteArrayInputStream(forged), (m, r) -> { }));
+        assertThrows(IOException.class,
+                () -> KryoIngestCodec.decode(new ByteArrayInputStream(body), 1024, (m, r) -> { }));
+        assertEquals(100, KryoIngestCodec.decode(new ByteArrayInputStream(body), 4096, (m, r) -> { }));
+    }
+
+    private static List<MeterReading> readings(int count, long start) {
+        List<MeterReading> readings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            readings.add(new MeterReading(start + i * 900_000L, 220.0 + i * 0.1, 5.0, 1100.0 + i));
+        }
+        return readings;
+    }
+}
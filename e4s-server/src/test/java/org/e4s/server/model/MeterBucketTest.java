@@ -0,0 +1,234 @@
+package org.e4s.server.model;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.e4s.model.BucketRollup;
+import org.e4s.model.MeterBucket;
+import org.e4s.model.MeterReading;
+import org.e4s.model.serialization.KryoFactory;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MeterBucketTest {
+
+    private static final long DAY = LocalDate.of(2026, 2, 18).toEpochDay();
+
+    @Test
+    void testAddReadingGrowsColumns() {
+        MeterBucket bucket = new MeterBucket(1, DAY);
+        for (int i = 0; i < 100; i++) {
+            bucket.addReading(new MeterReading(1000L + i, 220.0 + i, 5.0, 1000.0 + i));
+        }
+
+        assertEquals(100, bucket.getReadingCount());
+        assertEquals(1099L, bucket.getTimestamp(99));
+        assertEquals(319.0, bucket.getVoltage(99));
+        assertEquals(5.0, bucket.getCurrent(99));
+        assertEquals(1099.0, bucket.getPower(99));
+    }
+
+    @Test
+    void testGetReadingsMaterializesExactCount() {
+        MeterBucket bucket = new MeterBucket(1, DAY, 16);
+        bucket.addReading(1000L, 220.0, 5.0, 1100.0);
+        bucket.addReading(2000L, 221.0, 5.1, 1127.1);
+
+        MeterReading[] readings = bucket.getReadings();
+
+        assertEquals(2, readings.length);
+        assertEquals(2000L, readings[1].getReportedTs());
+        assertEquals(1127.1, readings[1].getPower());
+    }
+
+    @Test
+    void testSetReadingsReplacesColumns() {
+        MeterBucket bucket = new MeterBucket(1, DAY);
+        bucket.addReading(1L, 1.0, 1.0, 1.0);
+
+        bucket.setReadings(new MeterReading[]{
+                new MeterReading(10L, 2.0, 3.0, 4.0),
+                new MeterReading(20L, 5.0, 6.0, 7.0)
+        });
+
+        assertEquals(2, bucket.getReadingCount());
+        assertEquals(10L, bucket.getTimestamp(0));
+        assertEquals(7.0, bucket.getPower(1));
+    }
+
+    @Test
+    void testRollupMaintainedOnAppend() {
+        long dayStart = DAY * 86_400_000L;
+        MeterBucket bucket = new MeterBucket(1, DAY);
+        bucket.addReading(dayStart, 220.0, 5.0, 100.0);
+        bucket.addReading(new MeterReading(dayStart + 900_000L, 230.0, 4.0, 300.0));
+        bucket.addReadings(new long[]{dayStart + 3_600_000L, dayStart + 23 * 3_600_000L},
+                new double[]{225.0, 210.0}, new double[]{6.0, 5.5}, new double[]{50.0, 70.0}, 2);
+
+        BucketRollup rollup = bucket.getRollup();
+
+        assertEquals(4, rollup.getCount());
+        assertEquals(520.0, rollup.getSum(BucketRollup.POWER));
+        assertEquals(210.0, rollup.getMin(BucketRollup.VOLTAGE));
+        assertEquals(6.0, rollup.getMax(BucketRollup.CURRENT));
+        assertEquals(2, rollup.getHourCount(0));
+        assertEquals(400.0, rollup.getHourSum(0));
+        assertEquals(100.0, rollup.getHourMin(0));
+        assertEquals(300.0, rollup.getHourMax(0));
+        assertEquals(1, rollup.getHourCount(23));
+        assertEquals(0, rollup.getHourCount(12));
+    }
+
+    @Test
+    void testRollupRebuiltAfterColumnsReplaced() {
+        MeterBucket bucket = new MeterBucket(1, DAY);
+        long dayStart = DAY * 86_400_000L;
+        bucket.addReading(dayStart + 1L, 1.0, 1.0, 1.0);
+
+        bucket.setColumns(new long[]{dayStart + 10L, dayStart + 7_200_000L}, new double[]{2.0, 5.0}, new double[]{3.0, 6.0},
+                new double[]{4.0, 7.0}, 2);
+
+        assertEquals(2, bucket.getRollup().getCount());
+        assertEquals(11.0, bucket.getRollup().getSum(BucketRollup.POWER));
+        assertEquals(7.0, bucket.getRollup().getHourSum(2));
+    }
+
+    @Test
+    void testColumnLoaderDecodesColumnsOnFirstAccess() {
+        List<String> loaded = new ArrayList<>();
+        MeterBucket bucket = new MeterBucket(1, DAY);
+        bucket.setColumnLoader(new MeterBucket.ColumnLoader() {
+            @Override
+            public long[] loadTimestamps() {
+                loaded.add("timestamps");
+                return new long[]{1000L, 2000L};
+            }
+
+            @Override
+            public double[] loadVoltages() {
+                loaded.add("voltages");
+                return new double[]{220.0, 221.0};
+            }
+
+            @Override
+            public double[] loadCurrents() {
+                loaded.add("currents");
+                return new double[]{5.0, 5.1};
+            }
+
+            @Override
+            public double[] loadPowers() {
+                loaded.add("powers");
+                return new double[]{1100.0, 1127.1};
+            }
+        }, 2);
+
+        assertEquals(1127.1, bucket.getPower(1));
+        assertEquals(1127.1, bucket.getPowers()[1]);
+        assertEquals(List.of("powers"), loaded);
+
+        bucket.addReading(3000L, 222.0, 5.2, 1154.4);
+
+        assertEquals(List.of("powers", "timestamps", "voltages", "currents"), loaded);
+        assertEquals(3, bucket.getReadingCount());
+        assertEquals(2000L, bucket.getTimestamp(1));
+        assertEquals(5.2, bucket.getCurrent(2));
+        assertEquals(3000L, bucket.getMaxTimestamp());
+    }
+
+    @Test
+    void testOverlapsUsesTimeSpan() {
+        MeterBucket bucket = new MeterBucket(1, DAY);
+        assertFalse(bucket.overlaps(Long.MIN_VALUE, Long.MAX_VALUE));
+
+        bucket.addReading(2000L, 220.0, 5.0, 1100.0);
+        bucket.addReading(1000L, 220.0, 5.0, 1100.0);
+
+        assertEquals(1000L, bucket.getMinTimestamp());
+        assertEquals(2000L, bucket.getMaxTimestamp());
+        assertTrue(bucket.overlaps(2000L, 5000L));
+        assertFalse(bucket.overlaps(2001L, 5000L));
+    }
+
+    @Test
+    void testTrimToSize() {
+        MeterBucket bucket = new MeterBucket(1, DAY, 96);
+        bucket.addReading(1000L, 220.0, 5.0, 1100.0);
+
+        bucket.trimToSize();
+
+        assertEquals(1, bucket.getTimestamps().length);
+        assertEquals(1, bucket.getPowers().length);
+        assertEquals(1100.0, bucket.getPower(0));
+    }
+
+    @Test
+    void testUpsertReadingsKeepsOneSortedRowPerSlot() {
+        long slot = 15 * 60 * 1000L;
+        long dayStart = DAY * 24 * 60 * 60 * 1000L;
+        MeterBucket bucket = new MeterBucket(1, DAY);
+
+        assertEquals(2, bucket.upsertReadings(new long[]{dayStart, dayStart + 2 * slot},
+                new double[]{1.0, 3.0}, new double[]{1.0, 3.0}, new double[]{10.0, 30.0}, 2, slot));
+        assertEquals(1, bucket.upsertReadings(new long[]{dayStart + slot}, new double[]{2.0},
+                new double[]{2.0}, new double[]{20.0}, 1, slot));
+        assertEquals(0, bucket.upsertReadings(new long[]{dayStart, dayStart + 2 * slot},
+                new double[]{1.0, 3.0}, new double[]{1.0, 3.0}, new double[]{10.0, 30.0}, 2, slot));
+        assertEquals(1, bucket.upsertReadings(new long[]{dayStart + 2 * slot}, new double[]{3.0},
+                new double[]{3.0}, new double[]{35.0}, 1, slot));
+
+        assertEquals(3, bucket.getReadingCount());
+        assertEquals(dayStart + slot, bucket.getTimestamp(1));
+        assertEquals(20.0, bucket.getPower(1));
+        assertEquals(35.0, bucket.getPower(2));
+        assertEquals(65.0, bucket.getRollup().getSum(BucketRollup.POWER));
+    }
+
+    @Test
+    void testUpsertReadingsNormalizesAppendedRows() {
+        long slot = 15 * 60 * 1000L;
+        long dayStart = DAY * 24 * 60 * 60 * 1000L;
+        MeterBucket bucket = new MeterBucket(1, DAY);
+        bucket.addReading(dayStart + slot, 1.0, 1.0, 20.0);
+        bucket.addReading(dayStart, 1.0, 1.0, 10.0);
+        bucket.addReading(dayStart + slot, 1.0, 1.0, 25.0);
+
+        bucket.upsertReadings(new long[]{dayStart + 3 * slot}, new double[]{1.0}, new double[]{1.0},
+                new double[]{40.0}, 1, slot);
+
+        assertEquals(3, bucket.getReadingCount());
+        assertEquals(dayStart, bucket.getTimestamp(0));
+        assertEquals(25.0, bucket.getPower(1));
+        assertEquals(dayStart + 3 * slot, bucket.getTimestamp(2));
+        assertThrows(IllegalArgumentException.class, () -> bucket.upsertReadings(new long[]{dayStart - 1},
+                new double[]{1.0}, new double[]{1.0}, new double[]{1.0}, 1, slot));
+    }
+
+    @Test
+    void testKryoRoundTrip() {
+        MeterBucket bucket = new MeterBucket(1, DAY);
+        for (int i = 0; i < 96; i++) {
+            bucket.addReading(DAY * 86_400_000L + 1000L + i * 900_000L, 220.0 + i * 0.1, 5.0, 1100.0 + i);
+        }
+
+        Kryo kryo = KryoFactory.createKryo();
+        Output output = new Output(4096, -1);
+        kryo.writeObject(output, bucket);
+        MeterBucket copy = kryo.readObject(new Input(output.toBytes()), MeterBucket.class);
+
+        assertEquals(1, copy.getMeterOrdinal());
+        assertEquals(DAY, copy.getBucketDateEpochDay());
+        assertEquals(96, copy.getReadingCount());
+        assertEquals(bucket.getTimestamp(95), copy.getTimestamp(95));
+        assertEquals(bucket.getVoltage(50), copy.getVoltage(50));
+        assertEquals(bucket.getPower(95), copy.getPower(95));
+        assertEquals(bucket.getRollup().getHourSum(3), copy.getRollup().getHourSum(3));
+        assertEquals(bucket.getRollup().getMax(BucketRollup.VOLTAGE), copy.getRollup().getMax(BucketRollup.VOLTAGE));
+        assertEquals(96, copy.getRollup().getCount());
+    }
+}
@@ -1,6 +1,12 @@
 package org.e4s.server.model;
 
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.config.SerializerConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
 import org.e4s.model.MeterDayKey;
+import org.e4s.model.serialization.MeterDayKeyHazelcastSerializer;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
@@ -12,50 +18,28 @@ class MeterDayKeyTest {
     @Test
     void testCreateKey() {
         LocalDate date = LocalDate.of(2026, 2, 18);
-        MeterDayKey key = new MeterDayKey("MTR-001", date.toEpochDay());
+        MeterDayKey key = new MeterDayKey(7, date.toEpochDay());
 
-        assertEquals("MTR-001", key.getMeterId());
+        assertEquals(7, key.getMeterOrdinal());
         assertEquals(date, key.getDay());
     }
 
     @Test
     void testStaticFactoryMethod() {
         LocalDate date = LocalDate.of(2026, 2, 18);
-        MeterDayKey key = MeterDayKey.of("MTR-001", date);
+        MeterDayKey key = MeterDayKey.of(7, date);
 
-        assertEquals("MTR-001", key.getMeterId());
-        assertEquals(date, key.getDay());
-    }
-
-    @Test
-    void testToKeyString() {
-        LocalDate date = LocalDate.of(2026, 2, 18);
-        MeterDayKey key = MeterDayKey.of("MTR-001", date);
-
-        assertEquals("MTR-001:2026-02-18", key.toKeyString());
-    }
-
-    @Test
-    void testParseKey() {
-        MeterDayKey key = MeterDayKey.parse("MTR-001:2026-02-18");
-
-        assertEquals("MTR-001", key.getMeterId());
-        assertEquals(LocalDate.of(2026, 2, 18), key.getDay());
-    }
-
-    @Test
-    void testParseInvalidKeyThrowsException() {
-        assertThrows(IllegalArgumentException.class, () -> MeterDayKey.parse("invalid-key"));
-        assertThrows(IllegalArgumentException.class, () -> MeterDayKey.parse("MTR-001"));
+        assertEquals(7, key.getMeterOrdinal());
+        assertEquals(date.toEpochDay(), key.getDayEpochDay());
     }
 
     @Test
     void testEqualsAndHashCode() {
         LocalDate date = LocalDate.of(2026, 2, 18);
-        MeterDayKey key1 = MeterDayKey.of("MTR-001", date);
-        MeterDayKey key2 = MeterDayKey.of("MTR-001", date);
-        MeterDayKey key3 = MeterDayKey.of("MTR-002", date);
-        MeterDayKey key4 = MeterDayKey.of("MTR-001", date.plusDays(1));
+        MeterDayKey key1 = MeterDayKey.of(1, date);
+        MeterDayKey key2 = MeterDayKey.of(1, date);
+        MeterDayKey key3 = MeterDayKey.of(2, date);
+        MeterDayKey key4 = MeterDayKey.of(1, date.plusDays(1));
 
         assertEquals(key1, key2);
         assertEquals(key1.hashCode(), key2.hashCode());
@@ -66,20 +50,33 @@ class MeterDayKeyTest {
     }
 
     @Test
-    void testToString() {
+    void testPartitionKeyIsTheMeterOrdinal() {
         LocalDate date = LocalDate.of(2026, 2, 18);
-        MeterDayKey key = MeterDayKey.of("MTR-001", date);
 
-        assertEquals("MTR-001:2026-02-18", key.toString());
+        assertEquals(Integer.valueOf(7), MeterDayKey.of(7, date).getPartitionKey());
+        assertEquals(MeterDayKey.of(7, date).getPartitionKey(), MeterDayKey.of(7, date.plusDays(20)).getPartitionKey());
     }
 
     @Test
-    void testSetters() {
-        MeterDayKey key = new MeterDayKey();
-        key.setMeterId("MTR-003");
-        key.setDayEpochDay(LocalDate.of(2026, 2, 19).toEpochDay());
+    void testToString() {
+        assertEquals("#7:2026-02-18", MeterDayKey.of(7, LocalDate.of(2026, 2, 18)).toString());
+    }
 
-        assertEquals("MTR-003", key.getMeterId());
-        assertEquals(LocalDate.of(2026, 2, 19), key.getDay());
+    @Test
+    void testHazelcastRoundTrip() {
+        SerializationService serializationService = new DefaultSerializationServiceBuilder()
+                .setConfig(new SerializationConfig().addSerializerConfig(new SerializerConfig()
+                        .setTypeClass(MeterDayKey.class)
+                        .setImplementation(new MeterDayKeyHazelcastSerializer())))
+                .build();
+        MeterDayKey key = MeterDayKey.of(7, LocalDate.of(2026, 2, 18));
+
+        Data data = serializationService.toData(key);
+        MeterDayKey copy = serializationService.toObject(data);
+
+        assertEquals(key, copy);
+        assertEquals(key.hashCode(), copy.hashCode());
+        assertEquals(8, data.dataSize());
+        assertEquals(data, serializationService.toData(new MeterDayKey(7, LocalDate.of(2026, 2, 18).toEpochDay())));
     }
 }
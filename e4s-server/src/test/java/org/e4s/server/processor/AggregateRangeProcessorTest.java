@@ -0,0 +1,190 @@
+package org.e4s.server.processor;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import org.e4s.model.BucketRollup;
+import org.e4s.model.MeterBucket;
+import org.e4s.model.MeterDayKey;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AggregateRangeProcessorTest {
+
+    private static final MeterDayKey KEY = new MeterDayKey(1, LocalDate.of(2026, 2, 18));
+
+    private static final long DAY = LocalDate.of(2026, 2, 18).toEpochDay();
+
+    private static final long DAY_START = DAY * 86_400_000L;
+
+    private static final long HOUR = 3_600_000L;
+
+    @Test
+    void testAggregatesOnlyReadingsInRange() {
+        MeterBucket bucket = new MeterBucket(1, DAY);
+        for (int i = 0; i < 10; i++) {
+            bucket.addReading(DAY_START + 1000L * i, 220.0, 5.0, 100.0 + i);
+        }
+
+        AggregationSeries series = new AggregateRangeProcessor(DAY_START + 2000L, DAY_START + 4000L, HOUR, 0)
+                .process(new AbstractMap.SimpleEntry<>(KEY, bucket));
+
+        List<AggregationPartial> partials = new ArrayList<>();
+        series.forEach((start, partial) -> partials.add(partial));
+        assertEquals(1, partials.size());
+        AggregationPartial partial = partials.get(0);
+        assertEquals(3, partial.getCount());
+        assertEquals(309.0, partial.getSum());
+        assertEquals(102.0, partial.getMin());
+        assertEquals(104.0, partial.getMax());
+    }
+
+    @Test
+    void testSplitsReadingsIntoIntervals() {
+        MeterBucket bucket = new MeterBucket(1, DAY);
+        bucket.addReading(DAY_START + 10 * HOUR + 5_000, 220.0, 5.0, 10.0);
+        bucket.addReading(DAY_START + 10 * HOUR + 900_000, 220.0, 5.0, 20.0);
+        bucket.addReading(DAY_START + 13 * HOUR, 220.0, 5.0, 40.0);
+
+        AggregationSeries series = new AggregateRangeProcessor(DAY_START, DAY_START + 86_400_000L - 1, HOUR, 0)
+                .process(new AbstractMap.SimpleEntry<>(KEY, bucket));
+
+        Map<Long, AggregationPartial> byStart = new LinkedHashMap<>();
+        series.forEach(byStart::put);
+        assertEquals(List.of(DAY_START + 10 * HOUR, DAY_START + 13 * HOUR), new ArrayList<>(byStart.keySet()));
+        assertEquals(2, byStart.get(DAY_START + 10 * HOUR).getCount());
+        assertEquals(30.0, byStart.get(DAY_START + 10 * HOUR).getSum());
+        assertEquals(40.0, byStart.get(DAY_START + 13 * HOUR).getMax());
+    }
+
+    @Test
+    void testSkipsReadingsOutsideBucketDay() {
+        MeterBucket bucket = new MeterBucket(1, DAY);
+        bucket.addReading(DAY_START - HOUR, 220.0, 5.0, 1.0);
+        bucket.addReading(DAY_START + 10 * HOUR + 5_000, 220.0, 5.0, 10.0);
+        bucket.addReading(DAY_START + 86_400_000L + HOUR, 220.0, 5.0, 2.0);
+
+        AggregationSeries series = new AggregateRangeProcessor(DAY_START - 86_400_000L, DAY_START + 2 * 86_400_000L,
+                60_000L, 0).process(new AbstractMap.SimpleEntry<>(KEY, bucket));
+
+        Map<Long, AggregationPartial> byStart = new LinkedHashMap<>();
+        series.forEach(byStart::put);
+        assertEquals(List.of(DAY_START + 10 * HOUR), new ArrayList<>(byStart.keySet()));
+        assertEquals(10.0, byStart.get(DAY_START + 10 * HOUR).getSum());
+    }
+
+    @Test
+    void testRollupAndScanAgreeOnReadingsOutsideBucketDay() {
+        MeterBucket bucket = new MeterBucket(1, DAY);
+        bucket.addReading(DAY_START - HOUR, 220.0, 5.0, 1.0);
+        bucket.addReading(DAY_START + 10 * HOUR + 5_000, 220.0, 5.0, 10.0);
+        bucket.addReading(DAY_START + 86_400_000L + HOUR, 220.0, 5.0, 2.0);
+        long start = DAY_START - 86_400_000L;
+        long end = DAY_START + 2 * 86_400_000L;
+
+        AggregationPartial fromRollup = total(new AggregateRangeProcessor(start, end, HOUR, 0)
+                .process(new AbstractMap.SimpleEntry<>(KEY, bucket)));
+        AggregationPartial fromScan = total(new AggregateRangeProcessor(start, end, 60_000L, 0)
+                .process(new AbstractMap.SimpleEntry<>(KEY, bucket)));
+
+        assertEquals(1, fromRollup.getCount());
+        assertEquals(fromScan.getCount(), fromRollup.getCount());
+        assertEquals(fromScan.getSum(), fromRollup.getSum());
+        assertEquals(1, bucket.getRollup().getHourCount(23) + bucket.getRollup().getHourCount(10)
+                + bucket.getRollup().getHourCount(1));
+        assertTrue(bucket.overlaps(DAY_START - HOUR, DAY_START - HOUR));
+    }
+
+    @Test
+    void testWholeDayIsAnsweredFromRollup() {
+        MeterBucket bucket = new MeterBucket(1, DAY);
+        bucket.addReading(DAY_START + 10 * HOUR, 220.0, 5.0, 10.0);
+        bucket.addReading(DAY_START + 14 * HOUR, 220.0, 5.0, 30.0);
+        BucketRollup rollup = new BucketRollup();
+        rollup.setHour(10, 5, 100.0, 1.0, 50.0);
+        rollup.setTimeSpan(DAY_START + 10 * HOUR, DAY_START + 10 * HOUR);
+        bucket.setRollup(rollup);
+
+        AggregationSeries series = new AggregateRangeProcessor(DAY_START, DAY_START + 86_400_000L - 1,
+                86_400_000L, 0).process(new AbstractMap.SimpleEntry<>(KEY, bucket));
+
+        List<AggregationPartial> partials = new ArrayList<>();
+        series.forEach((start, partial) -> partials.add(partial));
+        assertEquals(1, partials.size());
+        assertEquals(5, partials.get(0).getCount());
+        assertEquals(100.0, partials.get(0).getSum());
+    }
+
+    @Test
+    void testRangeCuttingAnHourScansOnlyThatHour() {
+        MeterBucket bucket = new MeterBucket(1, DAY);
+        bucket.addReading(DAY_START + 10 * HOUR, 220.0, 5.0, 10.0);
+        bucket.addReading(DAY_START + 10 * HOUR + 1_800_000L, 220.0, 5.0, 20.0);
+        bucket.addReading(DAY_START + 11 * HOUR, 220.0, 5.0, 40.0);
+
+        AggregationSeries series = new AggregateRangeProcessor(DAY_START + 10 * HOUR + 1, DAY_START + 12 * HOUR,
+                86_400_000L, 0).process(new AbstractMap.SimpleEntry<>(KEY, bucket));
+
+        List<AggregationPartial> partials = new ArrayList<>();
+        series.forEach((start, partial) -> partials.add(partial));
+        assertEquals(2, partials.get(0).getCount());
+        assertEquals(60.0, partials.get(0).getSum());
+    }
+
+    @Test
+    void testMissingBucketAndMerge() {
+        assertNull(new AggregateRangeProcessor(0, 1, HOUR, 0)
+                .process(new AbstractMap.SimpleEntry<>(KEY, null)));
+
+        AggregationPartial left = new AggregationPartial();
+        left.add(5.0);
+        AggregationPartial right = new AggregationPartial();
+        right.add(-1.0);
+        right.add(3.0);
+        left.merge(right);
+        left.merge(new AggregationPartial());
+
+        assertEquals(3, left.getCount());
+        assertEquals(7.0, left.getSum());
+        assertEquals(-1.0, left.getMin());
+        assertEquals(5.0, left.getMax());
+    }
+
+    @Test
+    void testPartialSerializesThroughFactory() {
+        SerializationService serializationService = new DefaultSerializationServiceBuilder()
+                .setConfig(new SerializationConfig().addDataSerializableFactory(
+                        E4sDataSerializableFactory.FACTORY_ID, new E4sDataSerializableFactory()))
+                .build();
+        AggregationPartial partial = new AggregationPartial();
+        partial.add(42.5);
+
+        AggregationPartial copy = serializationService.toObject(serializationService.toData(partial));
+
+        assertEquals(1, copy.getCount());
+        assertEquals(42.5, copy.getMax());
+
+        AggregationSeries series = new AggregationSeries(DAY_START, HOUR, 24);
+        series.add(3, 7.0);
+        AggregationSeries seriesCopy = serializationService.toObject(serializationService.toData(series));
+
+        Map<Long, AggregationPartial> byStart = new LinkedHashMap<>();
+        seriesCopy.forEach(byStart::put);
+        assertEquals(1, byStart.size());
+        assertEquals(7.0, byStart.get(DAY_START + 3 * HOUR).getSum());
+    }
+
+    private static AggregationPartial total(AggregationSeries series) {
+        AggregationPartial total = new AggregationPartial();
+        series.forEach((start, partial) -> total.merge(partial));
+        return total;
+    }
+}
@@ -0,0 +1,57 @@
+package org.e4s.server.processor;
+
+import org.e4s.model.MeterBucket;
+import org.e4s.model.MeterDayKey;
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvictionProcessorTest {
+
+    private static final MeterDayKey KEY = new MeterDayKey(1, 20_000L);
+
+    @Test
+    void testRequiresBothOldAndIdle() {
+        EvictionProcessor processor = new EvictionProcessor(1000L, 2000L, Set.of());
+
+        assertTrue(processor.isEvictable(bucket(500L, 1500L)));
+        assertFalse(processor.isEvictable(bucket(500L, 2500L)));
+        assertFalse(processor.isEvictable(bucket(1500L, 1500L)));
+    }
+
+    @Test
+    void testRemovesEntryAndReportsIt() {
+        EvictionProcessor processor = new EvictionProcessor(1000L, 2000L, Set.of());
+        Map.Entry<MeterDayKey, MeterBucket> stale = new AbstractMap.SimpleEntry<>(KEY, bucket(500L, 1500L));
+        MeterBucket recent = bucket(500L, 2500L);
+        Map.Entry<MeterDayKey, MeterBucket> written = new AbstractMap.SimpleEntry<>(KEY, recent);
+
+        assertEquals(Boolean.TRUE, processor.process(stale));
+        assertNull(stale.getValue());
+        assertNull(processor.process(written));
+        assertSame(recent, written.getValue());
+    }
+
+    @Test
+    void testKeepsBucketsReadSinceIdleThreshold() {
+        EvictionProcessor processor = new EvictionProcessor(1000L, 2000L, Set.of(KEY));
+        Map.Entry<MeterDayKey, MeterBucket> read = new AbstractMap.SimpleEntry<>(KEY, bucket(500L, 1500L));
+        Map.Entry<MeterDayKey, MeterBucket> unread = new AbstractMap.SimpleEntry<>(
+                new MeterDayKey(2, 20_000L), bucket(500L, 1500L));
+
+        assertNull(processor.process(read));
+        assertNotNull(read.getValue());
+        assertEquals(Boolean.TRUE, processor.process(unread));
+    }
+
+    private static MeterBucket bucket(long createdTime, long lastWriteTime) {
+        MeterBucket bucket = new MeterBucket(1, 20_000L);
+        bucket.markWritten(createdTime);
+        bucket.markWritten(lastWriteTime);
+        return bucket;
+    }
+}
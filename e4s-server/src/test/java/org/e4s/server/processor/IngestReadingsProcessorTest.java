@@ -0,0 +1,97 @@
+package org.e4s.server.processor;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import org.e4s.model.MeterBucket;
+import org.e4s.model.MeterDayKey;
+import org.e4s.model.MeterReading;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.AbstractMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngestReadingsProcessorTest {
+
+    private static final MeterDayKey KEY = new MeterDayKey(1, LocalDate.of(2026, 2, 18));
+
+    private static final long DAY = LocalDate.of(2026, 2, 18).toEpochDay();
+
+    @Test
+    void testCreatesBucketWhenAbsent() {
+        Map.Entry<MeterDayKey, MeterBucket> entry = new AbstractMap.SimpleEntry<>(KEY, null);
+        IngestReadingsProcessor processor = new IngestReadingsProcessor(1, DAY, List.of(
+                new MeterReading(1000L, 220.0, 5.0, 1100.0),
+                new MeterReading(2000L, 221.0, 5.1, 1127.1)
+        ));
+
+        Integer count = processor.process(entry);
+
+        assertEquals(2, count);
+        MeterBucket bucket = entry.getValue();
+        assertEquals(1, bucket.getMeterOrdinal());
+        assertEquals(DAY, bucket.getBucketDateEpochDay());
+        assertEquals(2000L, bucket.getTimestamp(1));
+        assertEquals(1127.1, bucket.getPower(1));
+    }
+
+    @Test
+    void testAppendsToExistingBucket() {
+        MeterBucket existing = new MeterBucket(1, DAY);
+        existing.addReading(500L, 219.0, 4.9, 1073.1);
+        Map.Entry<MeterDayKey, MeterBucket> entry = new AbstractMap.SimpleEntry<>(KEY, existing);
+
+        Integer count = new IngestReadingsProcessor(1, DAY,
+                List.of(new MeterReading(1000L, 220.0, 5.0, 1100.0))).process(entry);
+
+        assertEquals(2, count);
+        assertEquals(500L, entry.getValue().getTimestamp(0));
+        assertEquals(1000L, entry.getValue().getTimestamp(1));
+    }
+
+    @Test
+    void testUpsertsIntoFixedSlots() {
+        long dayStart = DAY * 24 * 60 * 60 * 1000L;
+        long slot = 15 * 60 * 1000L;
+        MeterBucket existing = new MeterBucket(1, DAY);
+        existing.addReading(dayStart + slot, 220.0, 5.0, 1100.0);
+        Map.Entry<MeterDayKey, MeterBucket> entry = new AbstractMap.SimpleEntry<>(KEY, existing);
+
+        Integer count = new IngestReadingsProcessor(1, DAY, List.of(
+                new MeterReading(dayStart + slot, 220.0, 5.0, 1100.0),
+                new MeterReading(dayStart, 219.0, 4.9, 1073.1)
+        ), slot).process(entry);
+
+        assertEquals(2, count);
+        assertEquals(dayStart, entry.getValue().getTimestamp(0));
+        assertEquals(dayStart + slot, entry.getValue().getTimestamp(1));
+    }
+
+    @Test
+    void testSerializesThroughFactory() {
+        SerializationConfig config = new SerializationConfig()
+                .addDataSerializableFactory(E4sDataSerializableFactory.FACTORY_ID, new E4sDataSerializableFactory());
+        SerializationService serializationService = new DefaultSerializationServiceBuilder()
+                .setConfig(config)
+                .build();
+        IngestReadingsProcessor processor = new IngestReadingsProcessor(1, DAY, List.of(
+                new MeterReading(1000L, 220.0, 5.0, 1100.0),
+                new MeterReading(2000L, 221.0, 5.1, 1127.1)
+        ));
+
+        Data data = serializationService.toData(processor);
+        IngestReadingsProcessor copy = serializationService.toObject(data);
+
+        assertEquals(1, copy.getMeterOrdinal());
+        assertEquals(DAY, copy.getBucketDateEpochDay());
+        assertEquals(2, copy.getReadingCount());
+        Map.Entry<MeterDayKey, MeterBucket> entry = new AbstractMap.SimpleEntry<>(KEY, null);
+        copy.process(entry);
+        assertEquals(1127.1, entry.getValue().getPower(1));
+    }
+}
@@ -0,0 +1,114 @@
+package org.e4s.server.service;
+
+import org.e4s.model.MeterDayKey;
+import org.e4s.model.MeterReading;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncIngestPipelineTest {
+
+    private static final long DAY_START = 1_771_372_800_000L;
+
+    @Mock
+    private MeterCacheService meterCacheService;
+
+    private AsyncIngestPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = new AsyncIngestPipeline(meterCacheService);
+        ReflectionTestUtils.setField(pipeline, "enabled", true);
+        ReflectionTestUtils.setField(pipeline, "queueCapacity", 4);
+        ReflectionTestUtils.setField(pipeline, "workerCount", 1);
+        ReflectionTestUtils.setField(pipeline, "maxBatchReadings", 100);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pipeline.stop();
+    }
+
+    @Test
+    void testDisabledPipelineRejects() {
+        ReflectionTestUtils.setField(pipeline, "enabled", false);
+        pipeline.start();
+
+        assertFalse(pipeline.offer("MTR-001", List.of(reading(0))));
+    }
+
+    @Test
+    void testRejectsWhenCapacityExceeded() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(meterCacheService).ingestGrouped(anyMap());
+        pipeline.start();
+
+        assertTrue(pipeline.offer("MTR-001", List.of(reading(0), reading(1), reading(2))));
+        assertFalse(pipeline.offer("MTR-001", List.of(reading(3), reading(4))));
+
+        assertEquals(3, pipeline.getPendingReadings());
+        assertEquals(2, pipeline.getRejectedReadings());
+        release.countDown();
+    }
+
+    @Test
+    void testCountsReadingsOfFailedFlush() throws InterruptedException {
+        doThrow(new IllegalStateException("storage down")).when(meterCacheService).ingestGrouped(anyMap());
+        pipeline.start();
+
+        assertTrue(pipeline.offer("MTR-001", List.of(reading(0), reading(1))));
+        pipeline.stop();
+
+        assertEquals(2, pipeline.getFailedReadings());
+        assertEquals(0, pipeline.getPendingReadings());
+    }
+
+    @Test
+    void testLargeBatchDoesNotOverflowCapacityCheck() {
+        ReflectionTestUtils.setField(pipeline, "queueCapacity", Integer.MAX_VALUE);
+        pipeline.start();
+        ((AtomicInteger) ReflectionTestUtils.getField(pipeline, "pendingReadings")).set(Integer.MAX_VALUE - 1);
+
+        assertFalse(pipeline.offer("MTR-001", List.of(reading(0), reading(1))));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testFlushCoalescesByMeterDay() throws InterruptedException {
+        pipeline.start();
+
+        assertTrue(pipeline.offer("MTR-001", List.of(reading(0), reading(1))));
+        assertTrue(pipeline.offer("MTR-001", List.of(reading(2))));
+        pipeline.stop();
+
+        ArgumentCaptor<Map<MeterDayKey, List<MeterReading>>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(meterCacheService, atLeastOnce()).ingestGrouped(captor.capture());
+        int total = captor.getAllValues().stream()
+                .mapToInt(groups -> groups.values().stream().mapToInt(List::size).sum())
+                .sum();
+        assertEquals(3, total);
+        assertEquals(0, pipeline.getPendingReadings());
+    }
+
+    private static MeterReading reading(int slot) {
+        return new MeterReading(DAY_START + slot * 900_000L, 220.0, 5.0, 1100.0);
+    }
+}
@@ -0,0 +1,91 @@
+package org.e4s.server.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngestStreamReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testJsonArrayIsFlushedInFixedChunks() throws IOException {
+        List<Integer> chunkSizes = new ArrayList<>();
+        IngestStreamReader reader = new IngestStreamReader(objectMapper, 4);
+
+        boolean complete = reader.read(body("[" + request("MTR-001", 0, 6) + "," + request("MTR-002", 0, 3) + "]"),
+                chunk -> {
+                    chunkSizes.add(chunk.stream().mapToInt(r -> r.getReadings().size()).sum());
+                    return true;
+                });
+
+        assertTrue(complete);
+        assertEquals(List.of(4, 4, 1), chunkSizes);
+        assertEquals(9, reader.getAcceptedCount());
+    }
+
+    @Test
+    void testNdjsonAndMeterIdAfterReadings() throws IOException {
+        List<MeterCacheService.IngestRequest> received = new ArrayList<>();
+        IngestStreamReader reader = new IngestStreamReader(objectMapper, 100);
+        String late = "{\"readings\":[{\"reportedTs\":5,\"voltage\":1.0,\"current\":1.0,\"power\":1.0}],"
+                + "\"meterId\":\"MTR-003\",\"extra\":{\"ignored\":[1,2]}}";
+
+        reader.read(body(request("MTR-001", 0, 2) + "\n" + late + "\n"), received::addAll);
+
+        assertEquals(2, received.size());
+        assertEquals("MTR-003", received.get(1).getMeterId());
+        assertEquals(5L, received.get(1).getReadings().get(0).getReportedTs());
+    }
+
+    @Test
+    void testSinkRefusalStopsReading() throws IOException {
+        IngestStreamReader reader = new IngestStreamReader(objectMapper, 2);
+        int[] calls = {0};
+
+        boolean complete = reader.read(body(request("MTR-001", 0, 10)), chunk -> ++calls[0] < 2);
+
+        assertFalse(complete);
+        assertEquals(2, calls[0]);
+        assertEquals(2, reader.getAcceptedCount());
+    }
+
+    @Test
+    void testMissingMeterIdIsRejected() {
+        IngestStreamReader reader = new IngestStreamReader(objectMapper, 10);
+
+        assertThrows(IOException.class, () -> reader.read(body("{\"readings\":[]}"), chunk -> true));
+    }
+
+    @Test
+    void testNullReadingIsRejected() {
+        IngestStreamReader reader = new IngestStreamReader(objectMapper, 10);
+        String json = "{\"meterId\":\"MTR-001\",\"readings\":[null]}";
+
+        assertThrows(IOException.class, () -> reader.read(body(json), chunk -> true));
+    }
+
+    private static String request(String meterId, long start, int count) {
+        StringBuilder json = new StringBuilder("{\"meterId\":\"").append(meterId).append("\",\"readings\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"reportedTs\":").append(start + i * 900_000L)
+                    .append(",\"voltage\":220.0,\"current\":5.0,\"power\":").append(1100 + i).append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
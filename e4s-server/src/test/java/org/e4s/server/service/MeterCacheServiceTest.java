@@ -6,7 +6,9 @@ import com.hazelcast.map.IMap;
 import org.e4s.model.MeterBucket;
 import org.e4s.model.MeterDayKey;
 import org.e4s.model.MeterReading;
+import org.e4s.model.serialization.CompressionCodecs;
 import org.e4s.server.config.HazelcastConfig;
+import org.e4s.server.store.OffHeapBucketStore;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,6 +17,7 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -23,12 +26,15 @@ import static org.junit.jupiter.api.Assertions.*;
 class MeterCacheServiceTest {
 
     private HazelcastInstance hazelcastInstance;
+    private MeterRegistry meterRegistry;
     private MeterCacheService meterCacheService;
 
     @BeforeEach
     void setUp() {
-        hazelcastInstance = Hazelcast.newHazelcastInstance();
-        meterCacheService = new MeterCacheService(hazelcastInstance);
+        hazelcastInstance = Hazelcast.newHazelcastInstance(
+                HazelcastConfig.createConfig(CompressionCodecs.NONE, CompressionCodecs.NONE));
+        meterRegistry = new MeterRegistry(hazelcastInstance);
+        meterCacheService = new MeterCacheService(hazelcastInstance, meterRegistry, 0);
     }
 
     @AfterEach
@@ -43,20 +49,20 @@ class MeterCacheServiceTest {
 
         meterCacheService.ingestReading("MTR-001", reading);
 
-        IMap<String, MeterBucket> map = hazelcastInstance.getMap(HazelcastConfig.METER_DATA_MAP);
+        IMap<MeterDayKey, MeterBucket> map = hazelcastInstance.getMap(HazelcastConfig.METER_DATA_MAP);
         assertEquals(1, map.size());
 
         LocalDate day = Instant.ofEpochMilli(now).atZone(ZoneOffset.UTC).toLocalDate();
-        String expectedKey = "MTR-001:" + day;
+        MeterDayKey expectedKey = key("MTR-001", day);
         MeterBucket bucket = map.get(expectedKey);
         assertNotNull(bucket);
-        assertEquals("MTR-001", bucket.getMeterId());
+        assertEquals("MTR-001", meterRegistry.meterId(bucket.getMeterOrdinal()));
         assertEquals(1, bucket.getReadingCount());
     }
 
     @Test
     void testIngestMultipleReadingsForSameDay() {
-        long base = System.currentTimeMillis();
+        long base = Instant.parse("2026-02-18T10:00:00Z").toEpochMilli();
         for (int i = 0; i < 5; i++) {
             MeterReading reading = new MeterReading(
                     base + i * 15 * 60 * 1000,
@@ -64,7 +70,7 @@ class MeterCacheServiceTest {
             meterCacheService.ingestReading("MTR-001", reading);
         }
 
-        IMap<String, MeterBucket> map = hazelcastInstance.getMap(HazelcastConfig.METER_DATA_MAP);
+        IMap<MeterDayKey, MeterBucket> map = hazelcastInstance.getMap(HazelcastConfig.METER_DATA_MAP);
         assertEquals(1, map.size());
         
         MeterBucket bucket = map.values().iterator().next();
@@ -79,21 +85,22 @@ class MeterCacheServiceTest {
         meterCacheService.ingestReading("MTR-001", new MeterReading(day1, 1.0, 1.0, 1.0));
         meterCacheService.ingestReading("MTR-001", new MeterReading(day2, 1.0, 1.0, 1.0));
 
-        IMap<String, MeterBucket> map = hazelcastInstance.getMap(HazelcastConfig.METER_DATA_MAP);
+        IMap<MeterDayKey, MeterBucket> map = hazelcastInstance.getMap(HazelcastConfig.METER_DATA_MAP);
         assertEquals(2, map.size());
     }
 
     @Test
     void testIngestReadingsBatch() {
+        long base = Instant.parse("2026-02-18T10:00:00Z").toEpochMilli();
         List<MeterReading> readings = Arrays.asList(
-                new MeterReading(System.currentTimeMillis(), 1.0, 1.0, 1.0),
-                new MeterReading(System.currentTimeMillis() + 900000, 1.0, 1.0, 1.0),
-                new MeterReading(System.currentTimeMillis() + 1800000, 1.0, 1.0, 1.0)
+                new MeterReading(base, 1.0, 1.0, 1.0),
+                new MeterReading(base + 900000, 1.0, 1.0, 1.0),
+                new MeterReading(base + 1800000, 1.0, 1.0, 1.0)
         );
 
         meterCacheService.ingestReadings("MTR-001", readings);
 
-        IMap<String, MeterBucket> map = hazelcastInstance.getMap(HazelcastConfig.METER_DATA_MAP);
+        IMap<MeterDayKey, MeterBucket> map = hazelcastInstance.getMap(HazelcastConfig.METER_DATA_MAP);
         assertEquals(1, map.size());
         assertEquals(3, map.values().iterator().next().getReadingCount());
     }
@@ -114,10 +121,65 @@ class MeterCacheServiceTest {
 
         meterCacheService.ingestBatch(Arrays.asList(request1, request2));
 
-        IMap<String, MeterBucket> map = hazelcastInstance.getMap(HazelcastConfig.METER_DATA_MAP);
+        IMap<MeterDayKey, MeterBucket> map = hazelcastInstance.getMap(HazelcastConfig.METER_DATA_MAP);
         assertEquals(2, map.size());
     }
 
+    @Test
+    void testIngestBatchGroupsReadingsByMeterDay() {
+        LocalDate day = LocalDate.of(2026, 2, 18);
+        long dayStart = day.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        List<MeterCacheService.IngestRequest> requests = new ArrayList<>();
+        for (int m = 0; m < 50; m++) {
+            List<MeterReading> readings = new ArrayList<>();
+            for (int d = 0; d < 2; d++) {
+                for (int i = 0; i < 3; i++) {
+                    readings.add(new MeterReading(dayStart + d * 86_400_000L + i * 900_000L, 220.0, 5.0, i));
+                }
+            }
+            MeterCacheService.IngestRequest request = new MeterCacheService.IngestRequest();
+            request.setMeterId("MTR-" + m);
+            request.setReadings(readings);
+            requests.add(request);
+        }
+
+        meterCacheService.ingestBatch(requests);
+
+        IMap<MeterDayKey, MeterBucket> map = hazelcastInstance.getMap(HazelcastConfig.METER_DATA_MAP);
+        assertEquals(100, map.size());
+        MeterBucket bucket = map.get(key("MTR-7", day.plusDays(1)));
+        assertEquals(3, bucket.getReadingCount());
+        assertEquals(dayStart + 86_400_000L + 1_800_000L, bucket.getTimestamp(2));
+        assertEquals(2.0, bucket.getPower(2));
+    }
+
+    @Test
+    void testBulkLoadBuildsSortedExactBuckets() {
+        long day1 = Instant.parse("2026-02-18T00:00:00Z").toEpochMilli();
+        long day2 = Instant.parse("2026-02-19T00:00:00Z").toEpochMilli();
+        meterCacheService.ingestReading("MTR-001", new MeterReading(day1 + 5000, 9.0, 9.0, 9.0));
+
+        MeterCacheService.IngestRequest request = new MeterCacheService.IngestRequest();
+        request.setMeterId("MTR-001");
+        request.setReadings(Arrays.asList(
+                new MeterReading(day1 + 1_800_000, 1.0, 1.0, 3.0),
+                new MeterReading(day2, 1.0, 1.0, 4.0),
+                new MeterReading(day1, 1.0, 1.0, 1.0),
+                new MeterReading(day1 + 900_000, 1.0, 1.0, 2.0)
+        ));
+
+        int buckets = meterCacheService.bulkLoad(List.of(request));
+
+        assertEquals(2, buckets);
+        IMap<MeterDayKey, MeterBucket> map = hazelcastInstance.getMap(HazelcastConfig.METER_DATA_MAP);
+        MeterBucket bucket = map.get(key("MTR-001", LocalDate.of(2026, 2, 18)));
+        assertEquals(3, bucket.getReadingCount());
+        assertEquals(3, bucket.getTimestamps().length);
+        assertEquals(day1, bucket.getTimestamp(0));
+        assertEquals(3.0, bucket.getPower(2));
+        assertEquals(1, map.get(key("MTR-001", LocalDate.of(2026, 2, 19))).getReadingCount());
+    }
+
     @Test
     void testQueryRangeSingleDay() {
         long base = Instant.parse("2026-02-18T10:00:00Z").toEpochMilli();
@@ -148,6 +210,27 @@ class MeterCacheServiceTest {
         assertEquals(2, result.size());
     }
 
+    @Test
+    void testQueryRangeOrdersReadingsAcrossDaysAndOutOfOrderBuckets() {
+        long day1 = Instant.parse("2026-02-18T10:00:00Z").toEpochMilli();
+        long day2 = Instant.parse("2026-02-19T10:00:00Z").toEpochMilli();
+        long day3 = Instant.parse("2026-02-20T10:00:00Z").toEpochMilli();
+        meterCacheService.ingestReadings("MTR-001", Arrays.asList(
+                new MeterReading(day3, 1.0, 1.0, 1.0),
+                new MeterReading(day2 + 900_000, 1.0, 1.0, 1.0),
+                new MeterReading(day2, 1.0, 1.0, 1.0),
+                new MeterReading(day1, 1.0, 1.0, 1.0),
+                new MeterReading(day1 + 900_000, 1.0, 1.0, 1.0),
+                new MeterReading(day1 + 1_800_000, 1.0, 1.0, 1.0)
+        ));
+
+        List<MeterReading> result = meterCacheService.queryRange("MTR-001",
+                Instant.ofEpochMilli(day1 + 900_000), Instant.ofEpochMilli(day3));
+
+        assertEquals(List.of(day1 + 900_000, day1 + 1_800_000, day2, day2 + 900_000, day3),
+                result.stream().map(MeterReading::getReportedTs).toList());
+    }
+
     @Test
     void testQueryRangeEmptyResult() {
         List<MeterReading> result = meterCacheService.queryRange("MTR-999",
@@ -262,6 +345,175 @@ class MeterCacheServiceTest {
         assertNull(result.getValue());
     }
 
+    @Test
+    void testQueryAggregationHourlySeries() {
+        long base = Instant.parse("2026-02-18T10:00:00Z").toEpochMilli();
+        for (int i = 0; i < 5; i++) {
+            MeterReading reading = new MeterReading(
+                    base + i * 15 * 60 * 1000,
+                    1.0, 1.0, 100 + i * 10);
+            meterCacheService.ingestReading("MTR-001", reading);
+        }
+
+        MeterCacheService.AggregationResult result = meterCacheService.queryAggregation(
+                "MTR-001", Instant.ofEpochMilli(base), Instant.ofEpochMilli(base + 2 * 60 * 60 * 1000),
+                MeterCacheService.AggregationType.AVG,
+                MeterCacheService.Interval.HOURLY);
+
+        List<MeterCacheService.IntervalValue> series = result.getSeries();
+        assertEquals(2, series.size());
+        assertEquals(Instant.parse("2026-02-18T10:00:00Z"), series.get(0).getIntervalStart());
+        assertEquals(4, series.get(0).getCount());
+        assertEquals(115.0, series.get(0).getValue(), 0.01);
+        assertEquals(Instant.parse("2026-02-18T11:00:00Z"), series.get(1).getIntervalStart());
+        assertEquals(140.0, series.get(1).getValue(), 0.01);
+        assertEquals(120.0, result.getValue(), 0.01);
+    }
+
+    @Test
+    void testQueryFleetAggregationSelectsMetersAndDays() {
+        long base = Instant.parse("2026-02-18T10:00:00Z").toEpochMilli();
+        for (String meterId : List.of("MTR-001", "MTR-002", "MTR-003")) {
+            meterCacheService.ingestReading(meterId, new MeterReading(base, 1.0, 1.0, 100.0));
+            meterCacheService.ingestReading(meterId, new MeterReading(base + 15 * 60 * 1000, 1.0, 1.0, 200.0));
+            meterCacheService.ingestReading(meterId,
+                    new MeterReading(base + 24L * 60 * 60 * 1000, 1.0, 1.0, 1000.0));
+        }
+
+        MeterCacheService.FleetAggregationResult subset = meterCacheService.queryFleetAggregation(
+                List.of("MTR-001", "MTR-003", "MTR-003", "MTR-999"), Instant.ofEpochMilli(base),
+                Instant.ofEpochMilli(base + 60 * 60 * 1000), MeterCacheService.AggregationType.SUM);
+
+        assertEquals(2, subset.getMeterCount());
+        assertEquals(4, subset.getCount());
+        assertEquals(600.0, subset.getValue(), 0.01);
+
+        MeterCacheService.FleetAggregationResult fleet = meterCacheService.queryFleetAggregation(
+                null, Instant.parse("2026-02-18T00:00:00Z"), Instant.parse("2026-02-19T23:59:59Z"),
+                MeterCacheService.AggregationType.MAX);
+
+        assertEquals(9, fleet.getCount());
+        assertEquals(1000.0, fleet.getValue(), 0.01);
+
+        MeterCacheService.FleetAggregationResult none = meterCacheService.queryFleetAggregation(
+                List.of("MTR-999"), Instant.ofEpochMilli(base), Instant.ofEpochMilli(base + 60 * 60 * 1000),
+                MeterCacheService.AggregationType.SUM);
+
+        assertEquals(0, none.getMeterCount());
+        assertEquals(0, none.getCount());
+        assertNull(none.getValue());
+    }
+
+    @Test
+    void testQueryAggregationWeeklySeriesStartsOnMonday() {
+        meterCacheService.ingestReading("MTR-001",
+                new MeterReading(Instant.parse("2026-02-18T10:00:00Z").toEpochMilli(), 1.0, 1.0, 10.0));
+        meterCacheService.ingestReading("MTR-001",
+                new MeterReading(Instant.parse("2026-02-22T23:00:00Z").toEpochMilli(), 1.0, 1.0, 20.0));
+        meterCacheService.ingestReading("MTR-001",
+                new MeterReading(Instant.parse("2026-02-23T01:00:00Z").toEpochMilli(), 1.0, 1.0, 40.0));
+
+        MeterCacheService.AggregationResult result = meterCacheService.queryAggregation(
+                "MTR-001", Instant.parse("2026-02-17T00:00:00Z"), Instant.parse("2026-02-24T00:00:00Z"),
+                MeterCacheService.AggregationType.SUM,
+                MeterCacheService.Interval.WEEKLY);
+
+        List<MeterCacheService.IntervalValue> series = result.getSeries();
+        assertEquals(2, series.size());
+        assertEquals(Instant.parse("2026-02-16T00:00:00Z"), series.get(0).getIntervalStart());
+        assertEquals(30.0, series.get(0).getValue(), 0.01);
+        assertEquals(Instant.parse("2026-02-23T00:00:00Z"), series.get(1).getIntervalStart());
+        assertEquals(40.0, series.get(1).getValue(), 0.01);
+    }
+
+    @Test
+    void testAllDaysOfAMeterShareThePartitionOfItsOrdinal() {
+        long base = Instant.parse("2026-02-01T10:00:00Z").toEpochMilli();
+        List<MeterReading> readings = new ArrayList<>();
+        for (int day = 0; day < 21; day++) {
+            readings.add(new MeterReading(base + day * 24L * 3600000, 1.0, 1.0, 1.0));
+        }
+        meterCacheService.ingestReadings("MTR-001", readings);
+
+        IMap<MeterDayKey, MeterBucket> map = hazelcastInstance.getMap(HazelcastConfig.METER_DATA_MAP);
+        assertEquals(21, map.size());
+        int partitionId = meterCacheService.getPartitionId("MTR-001");
+        for (MeterDayKey key : map.keySet()) {
+            assertEquals(partitionId, hazelcastInstance.getPartitionService().getPartition(key).getPartitionId());
+        }
+        assertEquals(21, meterCacheService.queryRange("MTR-001",
+                Instant.ofEpochMilli(base), Instant.ofEpochMilli(base + 21 * 24L * 3600000)).size());
+    }
+
+    @Test
+    void testFixedSlotsIgnoreReplaysAndOrderLateReadings() {
+        MeterCacheService slotted = new MeterCacheService(hazelcastInstance, meterRegistry, 0, 900);
+        long base = Instant.parse("2026-02-18T10:00:00Z").toEpochMilli();
+        List<MeterReading> feed = List.of(
+                new MeterReading(base, 1.0, 1.0, 1.0),
+                new MeterReading(base + 30 * 60000, 1.0, 1.0, 3.0));
+
+        slotted.ingestReadings("MTR-001", feed);
+        slotted.ingestReadings("MTR-001", feed);
+        slotted.ingestReading("MTR-001", new MeterReading(base + 15 * 60000, 1.0, 1.0, 2.0));
+
+        List<MeterReading> result = slotted.queryRange("MTR-001",
+                Instant.ofEpochMilli(base), Instant.ofEpochMilli(base + 3600000));
+        assertEquals(3, result.size());
+        assertEquals(2.0, result.get(1).getPower());
+        assertThrows(IllegalArgumentException.class,
+                () -> new MeterCacheService(hazelcastInstance, meterRegistry, 0, 7));
+    }
+
+    @Test
+    void testOffHeapStoreServesIngestQueriesAndRetention() {
+        OffHeapBucketStore store = new OffHeapBucketStore(1024 * 1024, 8 * 1024 * 1024);
+        MeterCacheService offHeap = new MeterCacheService(hazelcastInstance, meterRegistry, 0, 0, store);
+        long today = System.currentTimeMillis();
+        long old = today - 30L * 24 * 3600000;
+        offHeap.ingestReadings("MTR-001", List.of(
+                new MeterReading(today, 1.0, 1.0, 10.0),
+                new MeterReading(today + 1, 1.0, 1.0, 20.0),
+                new MeterReading(old, 1.0, 1.0, 5.0)));
+        offHeap.ingestReading("MTR-002", new MeterReading(today, 1.0, 1.0, 30.0));
+
+        assertEquals(0, hazelcastInstance.getMap(HazelcastConfig.METER_DATA_MAP).size());
+        assertEquals(3, offHeap.getBucketCount());
+        assertEquals(2, offHeap.queryRange("MTR-001", Instant.ofEpochMilli(today - 1), Instant.ofEpochMilli(today + 1)).size());
+        assertEquals(30.0, offHeap.queryAggregation("MTR-001", Instant.ofEpochMilli(today - 1),
+                Instant.ofEpochMilli(today + 1), MeterCacheService.AggregationType.SUM, MeterCacheService.Interval.DAILY).getValue());
+        assertEquals(60.0, offHeap.queryFleetAggregation(null, Instant.ofEpochMilli(today - 1),
+                Instant.ofEpochMilli(today + 1), MeterCacheService.AggregationType.SUM).getValue());
+        assertEquals(2, offHeap.getBucketDays("MTR-001").size());
+
+        offHeap.evictOldBuckets(21, 24);
+
+        assertEquals(3, offHeap.getBucketCount());
+
+        long later = System.currentTimeMillis() + 1000;
+        long oldDay = Math.floorDiv(old, 24L * 3600000);
+        assertEquals(1, offHeap.evictBuckets(oldDay, later, later));
+        assertEquals(2, offHeap.getBucketCount());
+        assertEquals(1, offHeap.getBucketDays("MTR-001").size());
+    }
+
+    @Test
+    void testOffHeapBulkLoadKeepsWriteTimes() {
+        OffHeapBucketStore store = new OffHeapBucketStore(1024 * 1024, 8 * 1024 * 1024);
+        MeterCacheService offHeap = new MeterCacheService(hazelcastInstance, meterRegistry, 0, 0, store);
+        long before = System.currentTimeMillis();
+        MeterCacheService.IngestRequest request = new MeterCacheService.IngestRequest();
+        request.setMeterId("MTR-001");
+        request.setReadings(List.of(new MeterReading(before, 1.0, 1.0, 1.0)));
+
+        assertEquals(1, offHeap.bulkLoad(List.of(request)));
+
+        MeterBucket bucket = store.get(meterRegistry.find("MTR-001"), Math.floorDiv(before, 24L * 3600000));
+        assertTrue(bucket.getCreatedTime() >= before);
+        assertTrue(bucket.getLastWriteTime() >= before);
+        assertEquals(0, offHeap.evictBuckets(Long.MAX_VALUE, before, before));
+    }
+
     @Test
     void testGetBucketCount() {
         assertEquals(0, meterCacheService.getBucketCount());
@@ -287,22 +539,83 @@ class MeterCacheServiceTest {
     }
 
     @Test
-    void testEvictOldBuckets() throws InterruptedException {
-        IMap<String, MeterBucket> map = hazelcastInstance.getMap(HazelcastConfig.METER_DATA_MAP);
-        
-        MeterBucket oldBucket = new MeterBucket("MTR-001", LocalDate.now().minusDays(30).toEpochDay());
-        oldBucket.setCreatedTime(System.currentTimeMillis() - 30L * 24 * 60 * 60 * 1000);
-        oldBucket.setLastAccessTime(System.currentTimeMillis() - 48 * 60 * 60 * 1000);
-        map.put("MTR-001:" + LocalDate.now().minusDays(30), oldBucket);
-
-        MeterBucket recentBucket = new MeterBucket("MTR-002", LocalDate.now().toEpochDay());
-        map.put("MTR-002:" + LocalDate.now(), recentBucket);
-
-        assertEquals(2, meterCacheService.getBucketCount());
+    void testEvictOldBuckets() {
+        LocalDate oldDay = LocalDate.now(ZoneOffset.UTC).minusDays(30);
+        meterCacheService.ingestReading("MTR-001", new MeterReading(
+                oldDay.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli(), 1.0, 1.0, 1.0));
+        meterCacheService.ingestReading("MTR-002", new MeterReading(System.currentTimeMillis(), 1.0, 1.0, 1.0));
 
         meterCacheService.evictOldBuckets(21, 24);
+        assertEquals(2, meterCacheService.getBucketCount());
 
+        long later = System.currentTimeMillis() + 1000;
+        assertEquals(1, meterCacheService.evictBuckets(oldDay.toEpochDay(), later, later));
         assertEquals(1, meterCacheService.getBucketCount());
+        assertEquals(List.of(), meterCacheService.getBucketDays("MTR-001"));
+    }
+
+    @Test
+    void testEvictOldBucketsKeepsRecentlyWrittenOldDays() throws InterruptedException {
+        IMap<MeterDayKey, MeterBucket> map = hazelcastInstance.getMap(HazelcastConfig.METER_DATA_MAP);
+        LocalDate oldDay = LocalDate.now(ZoneOffset.UTC).minusDays(30);
+        long ts = oldDay.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        meterCacheService.ingestReading("MTR-001", new MeterReading(ts, 1.0, 1.0, 1.0));
+        meterCacheService.ingestReading("MTR-002", new MeterReading(ts, 1.0, 1.0, 1.0));
+        MeterBucket stored = map.get(key("MTR-001", oldDay));
+        assertEquals(stored.getCreatedTime(), stored.getLastWriteTime());
+        long writtenBefore = map.get(key("MTR-002", oldDay)).getLastWriteTime() + 1;
+
+        Thread.sleep(20);
+        meterCacheService.ingestReading("MTR-001", new MeterReading(ts + 900_000L, 1.0, 1.0, 1.0));
+        MeterBucket rewritten = map.get(key("MTR-001", oldDay));
+        assertEquals(stored.getCreatedTime(), rewritten.getCreatedTime());
+        assertTrue(rewritten.getLastWriteTime() > stored.getLastWriteTime());
+        map.get(key("MTR-002", oldDay));
+
+        assertEquals(1, meterCacheService.evictBuckets(oldDay.toEpochDay(), writtenBefore, writtenBefore));
+        assertTrue(map.containsKey(key("MTR-001", oldDay)));
+        assertFalse(map.containsKey(key("MTR-002", oldDay)));
+    }
+
+    @Test
+    void testEvictOldBucketsKeepsRecentlyReadOldDays() throws InterruptedException {
+        IMap<MeterDayKey, Long> access = hazelcastInstance.getMap(HazelcastConfig.METER_ACCESS_MAP);
+        LocalDate oldDay = LocalDate.now(ZoneOffset.UTC).minusDays(30);
+        Instant start = oldDay.atStartOfDay(ZoneOffset.UTC).toInstant();
+        meterCacheService.ingestReading("MTR-001", new MeterReading(start.toEpochMilli(), 1.0, 1.0, 1.0));
+        meterCacheService.ingestReading("MTR-002", new MeterReading(start.toEpochMilli(), 1.0, 1.0, 1.0));
+        Thread.sleep(20);
+        long idleSince = System.currentTimeMillis();
+
+        assertEquals(1, meterCacheService.queryRange("MTR-001", start, start.plusSeconds(60)).size());
+        for (int i = 0; i < 100 && !access.containsKey(key("MTR-001", oldDay)); i++) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(1, meterCacheService.evictBuckets(oldDay.toEpochDay(), idleSince + 1000, idleSince));
+        assertEquals(List.of(oldDay), meterCacheService.getBucketDays("MTR-001"));
+        assertEquals(List.of(), meterCacheService.getBucketDays("MTR-002"));
+
+        long later = System.currentTimeMillis() + 1000;
+        assertEquals(1, meterCacheService.evictBuckets(oldDay.toEpochDay(), later, later));
+        assertEquals(0, access.size());
+    }
+
+    @Test
+    void testGetBucketDaysUsesMeterIndex() {
+        meterCacheService.ingestReading("MTR-001",
+                new MeterReading(Instant.parse("2026-02-19T10:00:00Z").toEpochMilli(), 1.0, 1.0, 1.0));
+        meterCacheService.ingestReading("MTR-001",
+                new MeterReading(Instant.parse("2026-02-17T10:00:00Z").toEpochMilli(), 1.0, 1.0, 1.0));
+        meterCacheService.ingestReading("MTR-002",
+                new MeterReading(Instant.parse("2026-02-18T10:00:00Z").toEpochMilli(), 1.0, 1.0, 1.0));
+
+        assertEquals(List.of(LocalDate.of(2026, 2, 17), LocalDate.of(2026, 2, 19)),
+                meterCacheService.getBucketDays("MTR-001"));
+        assertTrue(meterCacheService.getBucketDays("MTR-999").isEmpty());
+
+        IMap<MeterDayKey, MeterBucket> map = hazelcastInstance.getMap(HazelcastConfig.METER_DATA_MAP);
+        assertEquals(2, map.getLocalMapStats().getIndexStats().size());
     }
 
     @Test
@@ -316,4 +629,124 @@ class MeterCacheServiceTest {
         assertEquals(1, stats.getTotalEntries());
         assertNotNull(stats);
     }
+
+    @Test
+    void testDayShardsRouteAndQueryAcrossShards() {
+        MeterCacheService sharded = new MeterCacheService(hazelcastInstance, 1);
+        long base = Instant.parse("2026-02-17T23:00:00Z").toEpochMilli();
+        List<MeterReading> readings = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            readings.add(new MeterReading(base + i * 4L * 60 * 60 * 1000, 220.0, 1.0, i));
+        }
+        sharded.ingestReadings("MTR-001", readings);
+
+        LocalDate first = LocalDate.of(2026, 2, 17);
+        for (int d = 0; d < 3; d++) {
+            IMap<MeterDayKey, MeterBucket> shard = hazelcastInstance.getMap(
+                    HazelcastConfig.shardMapName(first.plusDays(d).toEpochDay()));
+            assertEquals(1, shard.size());
+            assertTrue(shard.containsKey(key("MTR-001", first.plusDays(d))));
+        }
+        assertEquals(0, hazelcastInstance.getMap(HazelcastConfig.METER_DATA_MAP).size());
+        assertEquals(3, sharded.getBucketCount());
+        assertEquals(3, sharded.getCacheStats().getTotalEntries());
+
+        Instant start = Instant.ofEpochMilli(base);
+        Instant end = Instant.ofEpochMilli(base + 11 * 4L * 60 * 60 * 1000);
+        List<MeterReading> result = sharded.queryRange("MTR-001", start, end);
+        assertEquals(12, result.size());
+        for (int i = 0; i < 12; i++) {
+            assertEquals(i, result.get(i).getPower());
+        }
+
+        MeterCacheService.AggregationResult sum = sharded.queryAggregation("MTR-001", start, end,
+                MeterCacheService.AggregationType.SUM, MeterCacheService.Interval.DAILY);
+        assertEquals(66.0, sum.getValue());
+        assertEquals(3, sum.getSeries().size());
+
+        MeterCacheService.FleetAggregationResult fleet = sharded.queryFleetAggregation(null, start, end,
+                MeterCacheService.AggregationType.SUM);
+        assertEquals(66.0, fleet.getValue());
+        assertEquals(12, fleet.getCount());
+
+        assertEquals(List.of(first, first.plusDays(1), first.plusDays(2)), sharded.getBucketDays("MTR-001"));
+    }
+
+    @Test
+    void testDayShardsAlignToEpochAndEvictByDestroy() {
+        MeterCacheService sharded = new MeterCacheService(hazelcastInstance, 7);
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate expired = today.minusDays(40);
+        LocalDate retained = today.minusDays(1);
+
+        for (LocalDate day : List.of(expired, retained, today)) {
+            sharded.ingestReading("MTR-001", new MeterReading(
+                    day.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli(), 220.0, 1.0, 1.0));
+        }
+        long expiredShard = Math.floorDiv(expired.toEpochDay(), 7) * 7;
+        IMap<MeterDayKey, MeterBucket> expiredMap = hazelcastInstance.getMap(HazelcastConfig.shardMapName(expiredShard));
+        assertEquals(1, expiredMap.size());
+        assertEquals(3, sharded.getBucketCount());
+
+        sharded.evictOldBuckets(21, 24);
+
+        assertEquals(2, sharded.getBucketCount());
+        assertFalse(hazelcastInstance.getDistributedObjects().stream()
+                .anyMatch(o -> o.getName().equals(HazelcastConfig.shardMapName(expiredShard))));
+        assertEquals(List.of(retained, today), sharded.getBucketDays("MTR-001"));
+    }
+
+    @Test
+    void testDayShardReadsDoNotCreateShards() {
+        MeterCacheService sharded = new MeterCacheService(hazelcastInstance, 7);
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        sharded.ingestReading("MTR-001", new MeterReading(
+                today.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli(), 220.0, 1.0, 1.0));
+        hazelcastInstance.getMap(HazelcastConfig.METER_DATA_SHARD_PREFIX + "archive");
+        long objects = hazelcastInstance.getDistributedObjects().size();
+
+        Instant start = today.minusYears(3).atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant end = today.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        assertEquals(1, sharded.queryRange("MTR-001", start, end).size());
+        assertEquals(1, sharded.queryAggregation("MTR-001", start, end,
+                MeterCacheService.AggregationType.COUNT, MeterCacheService.Interval.DAILY).getCount());
+        assertEquals(1, sharded.queryFleetAggregation(null, start, end, MeterCacheService.AggregationType.COUNT)
+                .getCount());
+        sharded.evictBucket("MTR-001", today.minusYears(2));
+
+        assertEquals(objects, hazelcastInstance.getDistributedObjects().size());
+        assertEquals(List.of(today), sharded.getBucketDays("MTR-001"));
+        assertEquals(1, sharded.getBucketCount());
+    }
+
+    @Test
+    void testDayShardsOfOtherMembersAreTracked() throws InterruptedException {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate earlier = today.minusDays(14);
+        MeterCacheService writer = new MeterCacheService(hazelcastInstance, 7);
+        writer.ingestReading("MTR-001", new MeterReading(
+                earlier.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli(), 220.0, 1.0, 1.0));
+        MeterCacheService sharded = new MeterCacheService(hazelcastInstance, 7);
+        assertEquals(1, sharded.getBucketCount());
+
+        writer.ingestReading("MTR-001", new MeterReading(
+                today.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli(), 220.0, 1.0, 1.0));
+        awaitBucketCount(sharded, 2);
+        assertEquals(List.of(earlier, today), sharded.getBucketDays("MTR-001"));
+
+        hazelcastInstance.getMap(HazelcastConfig.shardMapName(Math.floorDiv(earlier.toEpochDay(), 7) * 7)).destroy();
+        awaitBucketCount(sharded, 1);
+        assertEquals(List.of(today), sharded.getBucketDays("MTR-001"));
+    }
+
+    private static void awaitBucketCount(MeterCacheService service, long expected) throws InterruptedException {
+        for (int i = 0; i < 100 && service.getBucketCount() != expected; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(expected, service.getBucketCount());
+    }
+
+    private MeterDayKey key(String meterId, LocalDate day) {
+        return MeterDayKey.of(meterRegistry.find(meterId), day);
+    }
 }
@@ -0,0 +1,107 @@
+package org.e4s.server.service;
+
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import org.e4s.model.serialization.CompressionCodecs;
+import org.e4s.server.config.HazelcastConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MeterRegistryTest {
+
+    private HazelcastInstance hazelcastInstance;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        hazelcastInstance = Hazelcast.newHazelcastInstance(
+                HazelcastConfig.createConfig(CompressionCodecs.NONE, CompressionCodecs.NONE));
+        meterRegistry = new MeterRegistry(hazelcastInstance);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hazelcastInstance.shutdown();
+    }
+
+    @Test
+    void testRegisterAssignsStableDistinctOrdinals() {
+        int first = meterRegistry.register("MTR-001");
+        int second = meterRegistry.register("MTR-002");
+
+        assertNotEquals(first, second);
+        assertEquals(first, meterRegistry.register("MTR-001"));
+        assertEquals(2, meterRegistry.size());
+    }
+
+    @Test
+    void testFindDoesNotRegister() {
+        assertEquals(MeterRegistry.UNKNOWN, meterRegistry.find("MTR-404"));
+        assertEquals(0, meterRegistry.size());
+
+        int ordinal = meterRegistry.register("MTR-404");
+        assertEquals(ordinal, meterRegistry.find("MTR-404"));
+    }
+
+    @Test
+    void testOrdinalsAreSharedAcrossRegistries() {
+        int ordinal = meterRegistry.register("MTR-001");
+        MeterRegistry other = new MeterRegistry(hazelcastInstance);
+
+        assertEquals(ordinal, other.find("MTR-001"));
+        assertEquals("MTR-001", other.meterId(ordinal));
+        assertNull(other.meterId(ordinal + 100));
+    }
+
+    @Test
+    void testRegisterSkipsOrdinalsAlreadyClaimed() {
+        IMap<Integer, String> ids = hazelcastInstance.getMap(HazelcastConfig.METER_IDS_MAP);
+        ids.set(1, "MTR-OTHER");
+
+        assertEquals(2, meterRegistry.register("MTR-001"));
+        assertEquals("MTR-OTHER", meterRegistry.meterId(1));
+        assertEquals("MTR-001", meterRegistry.meterId(2));
+    }
+
+    @Test
+    void testConcurrentRegistrationsGetDistinctOrdinals() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                MeterRegistry registry = new MeterRegistry(hazelcastInstance);
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        registry.register("MTR-" + i);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Set<Integer> ordinals = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            int ordinal = meterRegistry.find("MTR-" + i);
+            assertTrue(ordinals.add(ordinal));
+            assertEquals("MTR-" + i, meterRegistry.meterId(ordinal));
+        }
+        assertEquals(50, meterRegistry.size());
+        assertEquals(50, hazelcastInstance.getMap(HazelcastConfig.METER_IDS_MAP).size());
+    }
+}
@@ -0,0 +1,154 @@
+package org.e4s.server.store;
+
+import org.e4s.model.MeterBucket;
+import org.e4s.model.MeterDayKey;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapBucketStoreTest {
+
+    private static final long DAY = LocalDate.of(2026, 2, 18).toEpochDay();
+
+    private static final long DAY_START = DAY * 24 * 60 * 60 * 1000;
+
+    @Test
+    void testPutGetUpdateRemove() {
+        OffHeapBucketStore store = new OffHeapBucketStore(64 * 1024, 1024 * 1024);
+        store.put(bucket(1, DAY, 96));
+
+        MeterBucket bucket = store.get(1, DAY);
+        assertEquals(1, bucket.getMeterOrdinal());
+        assertEquals(96, bucket.getReadingCount());
+        assertEquals(DAY_START + 95 * 900_000L, bucket.getTimestamp(95));
+        assertEquals(229.5, bucket.getVoltage(95));
+        assertNull(store.get(2, DAY));
+
+        store.update(1, DAY, existing -> {
+            existing.addReading(DAY_START + 96 * 900_000L - 1, 1.0, 2.0, 3.0);
+            return existing;
+        });
+        assertEquals(97, store.get(1, DAY).getReadingCount());
+        assertEquals(1, store.size());
+
+        assertTrue(store.remove(1, DAY));
+        assertFalse(store.remove(1, DAY));
+        assertNull(store.get(1, DAY));
+        assertEquals(0, store.getLiveBytes());
+    }
+
+    @Test
+    void testRewritesReuseArenas() {
+        OffHeapBucketStore store = new OffHeapBucketStore(8 * 1024, 2 * 8 * 1024);
+        for (int i = 0; i < 1000; i++) {
+            store.put(bucket(1, DAY, 96));
+            store.put(bucket(2, DAY, 1 + i % 96));
+        }
+
+        assertEquals(2, store.size());
+        assertTrue(store.getReservedBytes() <= 2 * 8 * 1024);
+        assertEquals(96, store.get(1, DAY).getReadingCount());
+        assertEquals(1 + 999 % 96, store.get(2, DAY).getReadingCount());
+    }
+
+    @Test
+    void testIndexGrowsAndSurvivesRemovals() {
+        OffHeapBucketStore store = new OffHeapBucketStore(1024 * 1024, 16 * 1024 * 1024);
+        for (int meter = 0; meter < 1500; meter++) {
+            store.put(bucket(meter, DAY - 1, 4));
+            store.put(bucket(meter, DAY, 4));
+        }
+
+        assertEquals(1500, store.removeThrough(DAY - 1));
+        assertEquals(1500, store.size());
+        assertEquals(1500, store.keysBetween(DAY, DAY).size());
+        assertEquals(List.of(new MeterDayKey(42, DAY)), store.keysOf(42));
+        for (int meter = 0; meter < 1500; meter++) {
+            assertNull(store.get(meter, DAY - 1));
+            assertEquals(4, store.get(meter, DAY).getReadingCount());
+        }
+    }
+
+    @Test
+    void testCompactClosesGapsAndFullStoreIsRejected() {
+        OffHeapBucketStore store = new OffHeapBucketStore(4 * 1024, 4 * 1024);
+        int meter = 0;
+        try {
+            while (true) {
+                store.put(bucket(meter++, DAY, 8));
+            }
+        } catch (BucketStoreFullException expected) {
+            meter--;
+        }
+        for (int i = 0; i < meter; i++) {
+            if (i % 4 != 1) {
+                store.remove(i, DAY);
+            }
+        }
+
+        assertTrue(store.compact() > 0);
+        store.put(bucket(meter, DAY, 8));
+        assertEquals(8, store.get(meter, DAY).getReadingCount());
+        for (int i = 1; i < meter; i += 4) {
+            MeterBucket moved = store.get(i, DAY);
+            assertEquals(i, moved.getMeterOrdinal());
+            assertEquals(8, moved.getReadingCount());
+            assertEquals(DAY_START + 7 * 900_000L, moved.getTimestamp(7));
+            assertEquals(1107.0, moved.getPower(7));
+        }
+    }
+
+    @Test
+    void testRemoveExpiredChecksWriteTimes() {
+        OffHeapBucketStore store = new OffHeapBucketStore(64 * 1024, 1024 * 1024);
+        store.put(written(bucket(1, DAY, 4), 100, 200));
+        store.put(written(bucket(2, DAY, 4), 100, 900));
+        store.put(written(bucket(3, DAY, 4), 800, 900));
+        store.put(written(bucket(4, DAY + 1, 4), 100, 200));
+
+        MeterBucket bucket = store.get(2, DAY);
+        assertEquals(100, bucket.getCreatedTime());
+        assertEquals(900, bucket.getLastWriteTime());
+
+        assertEquals(1, store.removeExpired(DAY, 500, 500));
+        assertNull(store.get(1, DAY));
+        assertNotNull(store.get(2, DAY));
+        assertNotNull(store.get(3, DAY));
+        assertNotNull(store.get(4, DAY + 1));
+        assertEquals(2, store.removeExpired(DAY, 1000, 1000));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void testRemoveExpiredKeepsRecentlyReadBuckets() {
+        OffHeapBucketStore store = new OffHeapBucketStore(64 * 1024, 1024 * 1024);
+        store.put(written(bucket(1, DAY, 4), 100, 200));
+        store.put(written(bucket(2, DAY, 4), 100, 200));
+        store.markRead(1, DAY, 700);
+
+        assertEquals(1, store.removeExpired(DAY, 500, 500));
+        assertNotNull(store.get(1, DAY));
+        assertNull(store.get(2, DAY));
+        assertEquals(0, store.removeExpired(DAY, 500, 600));
+        assertEquals(1, store.removeExpired(DAY, 500, 800));
+        assertEquals(0, store.size());
+    }
+
+    private static MeterBucket written(MeterBucket bucket, long createdTime, long lastWriteTime) {
+        bucket.setCreatedTime(createdTime);
+        bucket.setLastWriteTime(lastWriteTime);
+        return bucket;
+    }
+
+    private static MeterBucket bucket(int meterOrdinal, long day, int count) {
+        MeterBucket bucket = new MeterBucket(meterOrdinal, day, count);
+        long dayStart = day * 24 * 60 * 60 * 1000;
+        for (int i = 0; i < count; i++) {
+            bucket.addReading(dayStart + i * 900_000L, 220.0 + i / 10.0, 5.0, 1100.0 + i);
+        }
+        return bucket;
+    }
+}